@@ -0,0 +1,74 @@
+package benchmark.jmh;
+
+import benchmark.BenchmarkHarness;
+import benchmark.Blackhole;
+import benchmark.TurnBenchmarks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the TurnBenchmarks bodies under JMH, one benchmark per value of name, so the
+ * in-tree harness and JMH measure exactly the same work. The in-tree harness stays for
+ * quick runs and its --baseline regression check; JMH is the reference for forking,
+ * JIT-safe sinks and profilers ("-prof gc" gives the B/op the harness reports).
+ *
+ * Usage: java -jar jmh/target/benchmarks.jar [-p name=...] [-prof gc]
+ * Any name TurnBenchmarks registers can be passed with -p; the default list covers the
+ * turn hot path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnBenchmarksJmh {
+    @Param({
+            "GameEngine.processSum",
+            "GameEngine.processSum:reuse",
+            "GameEngine.restore",
+            "GameBoard.move:64x64",
+            "BitBoard.move:64x64",
+            "BitBoard.move:1024x1024",
+            "BitBoard.findMatchingMask",
+            "Player.attack",
+            "MoveSolver.solve" })
+    public String name;
+
+    private BenchmarkHarness.BenchmarkOp op;
+    private final Blackhole blackhole = new Blackhole();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkHarness harness = new BenchmarkHarness(0, 0, 0);
+        TurnBenchmarks.registerAll(harness);
+        op = harness.get(name);
+        if (op == null) {
+            throw new IllegalArgumentException("No benchmark named " + name);
+        }
+    }
+
+    @Benchmark
+    public void run() {
+        op.run(blackhole);
+    }
+
+    // The harness's sink publishes what it consumed once per iteration, as in BenchmarkHarness
+    @TearDown(Level.Iteration)
+    public void flush() {
+        blackhole.flush();
+    }
+}
@@ -0,0 +1,166 @@
+package benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Small throughput harness in the spirit of JMH: warmup iterations, timed measurement
+ * iterations, and per-operation allocation taken from the same thread allocation counter
+ * that JMH's "-prof gc" reports as gc.alloc.rate.norm.
+ * Results can be saved and compared against a baseline to catch regressions per commit.
+ */
+public class BenchmarkHarness {
+    // One unit of benchmarked work
+    public interface BenchmarkOp {
+        void run(Blackhole blackhole);
+    }
+
+    // Result of one benchmark, throughput in ops/s and allocation in bytes/op
+    public static class Result {
+        public final String name;
+        public final double opsPerSecond;
+        public final double errorPercent;
+        public final double bytesPerOp;
+
+        public Result(String name, double opsPerSecond, double errorPercent, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.errorPercent = errorPercent;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+
+    private static final int BATCH_SIZE = 256;
+
+    private final Map<String, BenchmarkOp> benchmarks;
+    private final int warmupIterations;
+    private final int measureIterations;
+    private final long iterationNanos;
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    public BenchmarkHarness(int warmupIterations, int measureIterations, long iterationMillis) {
+        this.benchmarks = new LinkedHashMap<>();
+        this.warmupIterations = warmupIterations;
+        this.measureIterations = measureIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+        this.threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    public void register(String name, BenchmarkOp op) {
+        benchmarks.put(name, op);
+    }
+
+    // The registered benchmark with this name, or null
+    public BenchmarkOp get(String name) {
+        return benchmarks.get(name);
+    }
+
+    // Runs every benchmark whose name matches the filter, printing one line per benchmark
+    public List<Result> runAll(Pattern filter) {
+        List<Result> results = new ArrayList<>();
+        System.out.printf("%-40s %15s %9s %12s%n", "Benchmark", "ops/s", "error", "B/op");
+        for (Map.Entry<String, BenchmarkOp> entry : benchmarks.entrySet()) {
+            if (!filter.matcher(entry.getKey()).find()) {
+                continue;
+            }
+            Result result = run(entry.getKey(), entry.getValue());
+            System.out.printf("%-40s %,15.0f %8.1f%% %12.1f%n",
+                    result.name, result.opsPerSecond, result.errorPercent, result.bytesPerOp);
+            results.add(result);
+        }
+        return results;
+    }
+
+    private Result run(String name, BenchmarkOp op) {
+        Blackhole blackhole = new Blackhole();
+        for (int i = 0; i < warmupIterations; i++) {
+            runIteration(op, blackhole);
+        }
+
+        double[] throughput = new double[measureIterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < measureIterations; i++) {
+            long bytesBefore = threadBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            long ops = runIteration(op, blackhole);
+            long elapsed = System.nanoTime() - start;
+            totalBytes += threadBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+            totalOps += ops;
+            throughput[i] = ops * 1_000_000_000.0 / elapsed;
+        }
+
+        double mean = 0;
+        for (double value : throughput) {
+            mean += value;
+        }
+        mean /= measureIterations;
+
+        double variance = 0;
+        for (double value : throughput) {
+            variance += (value - mean) * (value - mean);
+        }
+        double stdDev = measureIterations > 1 ? Math.sqrt(variance / (measureIterations - 1)) : 0;
+
+        return new Result(name, mean, mean > 0 ? stdDev / mean * 100 : 0, (double) totalBytes / totalOps);
+    }
+
+    private long runIteration(BenchmarkOp op, Blackhole blackhole) {
+        long ops = 0;
+        long deadline = System.nanoTime() + iterationNanos;
+        do {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                op.run(blackhole);
+            }
+            ops += BATCH_SIZE;
+        } while (System.nanoTime() < deadline);
+        blackhole.flush();
+        return ops;
+    }
+
+    // Saves results as "name,opsPerSecond,bytesPerOp" lines
+    public static void save(List<Result> results, Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Result result : results) {
+            lines.add(result.name + "," + result.opsPerSecond + "," + result.bytesPerOp);
+        }
+        Files.write(file, lines);
+    }
+
+    // Compares results with a saved baseline and returns the number of regressions found.
+    // A regression is a throughput drop beyond the tolerance or any new allocation on a
+    // benchmark that used to be allocation-free.
+    public static int compare(List<Result> results, Path baselineFile, double tolerancePercent) throws IOException {
+        Map<String, double[]> baseline = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(baselineFile)) {
+            String[] parts = line.split(",");
+            if (parts.length == 3) {
+                baseline.put(parts[0], new double[] { Double.parseDouble(parts[1]), Double.parseDouble(parts[2]) });
+            }
+        }
+
+        int regressions = 0;
+        for (Result result : results) {
+            double[] previous = baseline.get(result.name);
+            if (previous == null) {
+                continue;
+            }
+            double change = (result.opsPerSecond - previous[0]) / previous[0] * 100;
+            boolean slower = change < -tolerancePercent;
+            boolean newAllocation = previous[1] < 1.0 && result.bytesPerOp >= 1.0;
+            if (slower || newAllocation) {
+                regressions++;
+                System.out.printf("REGRESSION %-40s %+.1f%% ops/s, %.1f -> %.1f B/op%n",
+                        result.name, change, previous[1], result.bytesPerOp);
+            }
+        }
+        return regressions;
+    }
+}
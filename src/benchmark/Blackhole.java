@@ -0,0 +1,34 @@
+package benchmark;
+
+/**
+ * Sink for benchmark results so the JIT cannot prove the work is unused and remove it.
+ */
+public class Blackhole {
+    private volatile long sink;
+    private long accumulator;
+
+    public void consume(int value) {
+        accumulator += value;
+    }
+
+    public void consume(long value) {
+        accumulator += value;
+    }
+
+    public void consume(double value) {
+        accumulator += Double.doubleToRawLongBits(value);
+    }
+
+    public void consume(boolean value) {
+        accumulator += value ? 1 : 0;
+    }
+
+    public void consume(Object value) {
+        accumulator += System.identityHashCode(value);
+    }
+
+    // Publishes the accumulated value once per iteration, keeping the volatile write off the hot loop
+    public void flush() {
+        sink = accumulator;
+    }
+}
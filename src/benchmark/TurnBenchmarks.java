@@ -0,0 +1,291 @@
+package benchmark;
+
+import journal.EventJournal;
+import journal.JournalObserver;
+import model.AsyncEventBus;
+import model.BitBoard;
+import model.Board;
+import model.EngineSnapshot;
+import model.EquipmentRegistry;
+import model.Fill;
+import model.GameBoard;
+import model.GameEngine;
+import model.GameRandom;
+import model.MoveSolver;
+import model.Opponent;
+import model.Player;
+import model.ring.Ring;
+import model.weapon.AttackBuffer;
+import model.weapon.Weapon;
+import simulation.GreedyMovePolicy;
+import simulation.MovePolicy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for the turn hot path: GameEngine.processSum, GameEngine.restore,
+ * Board.findMatchingCells, Player.attack, MoveSolver.solve, every Weapon.applyEffect and
+ * every Ring.activates.
+ *
+ * Usage: TurnBenchmarks [filter regex] [--save file] [--baseline file] [--tolerance percent]
+ * Exits with status 1 if any benchmark regressed against the baseline.
+ */
+public class TurnBenchmarks {
+    private static final long SEED = 213L;
+    private static final int OPPONENT_HEALTH = 1_000_000;
+
+    public static void main(String[] args) throws Exception {
+        Pattern filter = Pattern.compile(".*");
+        Path saveFile = null;
+        Path baselineFile = null;
+        double tolerance = 10.0;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--save" -> saveFile = Path.of(args[++i]);
+                case "--baseline" -> baselineFile = Path.of(args[++i]);
+                case "--tolerance" -> tolerance = Double.parseDouble(args[++i]);
+                default -> filter = Pattern.compile(args[i]);
+            }
+        }
+
+        BenchmarkHarness harness = new BenchmarkHarness(5, 5, 1000);
+        registerAll(harness);
+        List<BenchmarkHarness.Result> results = harness.runAll(filter);
+
+        if (saveFile != null) {
+            BenchmarkHarness.save(results, saveFile);
+        }
+        if (baselineFile != null && BenchmarkHarness.compare(results, baselineFile, tolerance) > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Also used by the JMH module (jmh/), which runs these same bodies
+    public static void registerAll(BenchmarkHarness harness) {
+        registerProcessSum(harness);
+        registerRestore(harness);
+        registerBoardMove(harness, "GameBoard.move:64x64", new GameBoard(new GameRandom(SEED), 64));
+        registerBoardMove(harness, "BitBoard.move:64x64", new BitBoard(new GameRandom(SEED), 64));
+        registerBoardMove(harness, "BitBoard.move:1024x1024", new BitBoard(new GameRandom(SEED), 1024));
+        registerFindMatchingCells(harness, "GameBoard", new GameBoard(new GameRandom(SEED)));
+        registerFindMatchingCells(harness, "BitBoard", new BitBoard(new GameRandom(SEED)));
+        registerPlayerAttack(harness);
+        registerMoveSolver(harness);
+
+        for (int id = 0; id < EquipmentRegistry.WEAPON_COUNT; id++) {
+            registerWeapon(harness, EquipmentRegistry.getWeapon(id));
+        }
+        for (int id = 0; id < EquipmentRegistry.RING_COUNT; id++) {
+            registerRing(harness, EquipmentRegistry.getRing(id));
+        }
+    }
+
+    // One full turn through the engine, starting a new match whenever one ends
+    private static void registerProcessSum(BenchmarkHarness harness) {
+        GameEngine engine = new GameEngine(SEED);
+        MovePolicy policy = new GreedyMovePolicy();
+        harness.register("GameEngine.processSum", blackhole -> {
+            if (!engine.getPlayer().isAlive() || allDefeated(engine.getOpponents())) {
+                engine.startNewMatch();
+            }
+            blackhole.consume(engine.processSum(policy.chooseSum(engine)));
+        });
+
+        // Same turn with flyweight events, as the simulators run it
+        GameEngine reusingEngine = new GameEngine(SEED);
+        reusingEngine.setReuseEvents(true);
+        harness.register("GameEngine.processSum:reuse", blackhole -> {
+            if (!reusingEngine.getPlayer().isAlive() || allDefeated(reusingEngine.getOpponents())) {
+                reusingEngine.startNewMatch();
+            }
+            blackhole.consume(reusingEngine.processSum(policy.chooseSum(reusingEngine)));
+        });
+
+        // Same turn with every event handed to an observer on the event bus thread
+        GameEngine asyncEngine = new GameEngine(SEED);
+        Blackhole sink = new Blackhole();
+        asyncEngine.registerObserver(new AsyncEventBus(sink::consume, 1024, AsyncEventBus.Backpressure.BLOCK));
+        harness.register("GameEngine.processSum:async", blackhole -> {
+            if (!asyncEngine.getPlayer().isAlive() || allDefeated(asyncEngine.getOpponents())) {
+                asyncEngine.startNewMatch();
+            }
+            blackhole.consume(asyncEngine.processSum(policy.chooseSum(asyncEngine)));
+        });
+
+        // Same turn as :reuse with every event journaled, to a directory removed on exit
+        GameEngine journaledEngine = new GameEngine(SEED);
+        journaledEngine.setReuseEvents(true);
+        journaledEngine.registerObserver(new JournalObserver(openScratchJournal(), 0));
+        harness.register("GameEngine.processSum:journal", blackhole -> {
+            if (!journaledEngine.getPlayer().isAlive() || allDefeated(journaledEngine.getOpponents())) {
+                journaledEngine.startNewMatch();
+            }
+            blackhole.consume(journaledEngine.processSum(policy.chooseSum(journaledEngine)));
+        });
+    }
+
+    // A search branch: put the engine back to a mid-match snapshot, then play one turn
+    private static void registerRestore(BenchmarkHarness harness) {
+        GameEngine engine = new GameEngine(SEED);
+        engine.setReuseEvents(true);
+        MovePolicy policy = new GreedyMovePolicy();
+        for (int i = 0; i < 10; i++) {
+            engine.processSum(policy.chooseSum(engine));
+        }
+        EngineSnapshot snapshot = engine.snapshot();
+        harness.register("GameEngine.restore", blackhole -> {
+            engine.restore(snapshot);
+            blackhole.consume(engine.processSum(policy.chooseSum(engine)));
+        });
+    }
+
+    private static EventJournal openScratchJournal() {
+        try {
+            Path directory = Files.createTempDirectory("turn-benchmarks-journal");
+            EventJournal journal = new EventJournal(directory);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try (Stream<Path> files = Files.list(directory)) {
+                    journal.close();
+                    for (Path file : files.toList()) {
+                        Files.delete(file);
+                    }
+                    Files.delete(directory);
+                } catch (IOException e) {
+                    System.err.println("Could not remove " + directory + ": " + e);
+                }
+            }));
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The board side of a successful turn, as done by GameEngine.processSum, without the
+    // match ending every few dozen turns (which on large boards would only measure board setup)
+    private static void registerBoardMove(BenchmarkHarness harness, String name, Board board) {
+        harness.register(name, blackhole -> {
+            int cell = board.findFirstCellNotInFill();
+            int sum = board.getCenterValue() + board.getCellValue(board.getRow(cell), board.getCol(cell));
+            int chosen = board.findFirstMatchNotInFill(sum);
+            int row = board.getRow(chosen);
+            int col = board.getCol(chosen);
+            int value = board.getCellValue(row, col);
+            board.addToFill(row, col);
+            board.setCenterValue(value);
+            board.regenerateCellValue(row, col);
+            if (board.isFillComplete()) {
+                board.resetFill();
+            }
+            blackhole.consume(value);
+        });
+    }
+
+    // Alternates between a sum that matches and one that cannot
+    private static void registerFindMatchingCells(BenchmarkHarness harness, String boardName, Board board) {
+        int hit = board.getCenterValue() + board.getCellValue(0, 0);
+        int[] sums = { hit, -1 };
+        int[] next = { 0 };
+        harness.register(boardName + ".findMatchingCells", blackhole -> {
+            blackhole.consume(board.findMatchingCells(sums[next[0]]));
+            next[0] ^= 1;
+        });
+        harness.register(boardName + ".findMatchingMask", blackhole -> {
+            blackhole.consume(board.findMatchingMask(sums[next[0]]));
+            next[0] ^= 1;
+        });
+    }
+
+    private static void registerPlayerAttack(BenchmarkHarness harness) {
+        Player player = new Player(620, new GameRandom(SEED));
+        player.setWeapon(EquipmentRegistry.getWeapon(EquipmentRegistry.FROST_BOW));
+        player.setRings(EquipmentRegistry.getRing(EquipmentRegistry.BIG_ONE_RING),
+                EquipmentRegistry.getRing(EquipmentRegistry.MEH_RING),
+                EquipmentRegistry.getRing(EquipmentRegistry.PRIME_DIRECTIVE_RING));
+        Opponent[] opponents = createOpponents();
+        Fill fill = createAscendingFill();
+        harness.register("Player.attack", blackhole -> {
+            resetHealth(opponents);
+            blackhole.consume(player.attack(opponents, fill));
+        });
+    }
+
+    // One solver call per turn at a fixed lookahead, playing the answer
+    private static void registerMoveSolver(BenchmarkHarness harness) {
+        GameEngine engine = new GameEngine(SEED);
+        engine.equipPlayerWeapon(EquipmentRegistry.STONE_HAMMER); // kept across matches
+        engine.equipPlayerRings(EquipmentRegistry.TWO_RING, EquipmentRegistry.TENACITY_RING,
+                EquipmentRegistry.PRIME_DIRECTIVE_RING);
+        MoveSolver solver = new MoveSolver(0, 2, MoveSolver.DEFAULT_MILLIS_PER_TURN);
+        harness.register("MoveSolver.solve", blackhole -> {
+            if (!engine.getPlayer().isAlive() || allDefeated(engine.getOpponents())) {
+                engine.startNewMatch();
+            }
+            int sum = solver.solve(engine).getSum();
+            blackhole.consume(engine.processSum(sum));
+        });
+    }
+
+    private static void registerWeapon(BenchmarkHarness harness, Weapon weapon) {
+        Opponent[] opponents = createOpponents();
+        Fill fill = createAscendingFill();
+        GameRandom random = new GameRandom(SEED);
+        AttackBuffer buffer = new AttackBuffer();
+        int[] target = { 0 };
+        harness.register("Weapon.applyEffect:" + weapon.getName(), blackhole -> {
+            buffer.clear();
+            weapon.applyEffect(fill, opponents, 136, target[0], random, buffer);
+            blackhole.consume(buffer.size());
+            target[0] = (target[0] + 1) % opponents.length;
+        });
+    }
+
+    // Sweeps the whole strength range a 3x3 board can produce
+    private static void registerRing(BenchmarkHarness harness, Ring ring) {
+        int[] strength = { 0 };
+        harness.register("Ring.activates:" + ring.getName(), blackhole -> {
+            blackhole.consume(ring.activates(strength[0]));
+            strength[0] = (strength[0] + 1) & 127;
+        });
+    }
+
+    private static Opponent[] createOpponents() {
+        return new Opponent[] { new Opponent(OPPONENT_HEALTH), new Opponent(OPPONENT_HEALTH),
+                new Opponent(OPPONENT_HEALTH) };
+    }
+
+    private static void resetHealth(Opponent[] opponents) {
+        for (Opponent opponent : opponents) {
+            opponent.setHealth(OPPONENT_HEALTH);
+        }
+    }
+
+    private static boolean allDefeated(Opponent[] opponents) {
+        for (Opponent opponent : opponents) {
+            if (opponent.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // A complete fill of the eight outer cells with ascending values 1..8
+    private static Fill createAscendingFill() {
+        Fill fill = new Fill();
+        int value = 1;
+        for (int row = 0; row < 3; row++) {
+            for (int col = 0; col < 3; col++) {
+                if (row != 1 || col != 1) {
+                    fill.addCell(row, col, value++);
+                }
+            }
+        }
+        return fill;
+    }
+}
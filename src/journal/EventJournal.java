@@ -0,0 +1,288 @@
+package journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of encoded game events and inputs, kept as a directory of
+ * fixed-size segment files that are written through memory maps.
+ *
+ * Writers append whole blocks: the records one engine (a stream) produced since its last
+ * block, as collected by a JournalObserver. A block is copied into the current segment
+ * under a short lock and never spans two segments; when it does not fit, the rest of the
+ * segment stays empty and a new segment is mapped. Durability is a group commit: a
+ * flusher thread forces everything appended since its previous pass once every commit
+ * interval, or right away when a writer waits in awaitDurable, so any number of appends
+ * share one fsync.
+ *
+ * Segment layout, little-endian: MAGIC, VERSION, then blocks of
+ *   int length (header included), int CRC32C of the rest, long streamId,
+ *   int recordCount, recordCount EventCodec records (one codec run)
+ * up to a zero length or the end of the file. The length is written last, and the CRC
+ * exposes blocks torn by a crash. A journal opened on a directory that already holds
+ * segments starts a new segment after the last one and never touches earlier data.
+ */
+public class EventJournal implements AutoCloseable {
+    public static final int MAGIC = 0x4A4D5553; // "SUMJ"
+    public static final int VERSION = 1;
+    public static final int SEGMENT_HEADER_SIZE = 8;
+    public static final int BLOCK_HEADER_SIZE = 20;
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+    public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 10;
+    static final String SEGMENT_PREFIX = "events-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long commitIntervalMillis;
+    private final CRC32C crc = new CRC32C();
+    private final Thread flusher;
+
+    // Append state, guarded by this. Positions count bytes from the start of the first
+    // segment this journal wrote, with every segment counted at its full size.
+    private int segmentNumber;
+    private Segment current;
+    private long appended; // position after the last block
+    private final ArrayDeque<Segment> retired = new ArrayDeque<>(); // full, not forced to the end yet
+    private boolean closed;
+
+    // Durability state, guarded by flushLock
+    private final Object flushLock = new Object();
+    private long durable; // everything before this position is on disk
+    private boolean syncRequested;
+    private RuntimeException flushFailure;
+
+    public EventJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_COMMIT_INTERVAL_MILLIS);
+    }
+
+    public EventJournal(Path directory, int segmentSize, long commitIntervalMillis) throws IOException {
+        if (segmentSize < SEGMENT_HEADER_SIZE + BLOCK_HEADER_SIZE + 1) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentSize);
+        }
+        if (commitIntervalMillis < 1) {
+            throw new IllegalArgumentException("Invalid commit interval: " + commitIntervalMillis);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.commitIntervalMillis = commitIntervalMillis;
+
+        Files.createDirectories(directory);
+        this.segmentNumber = lastSegmentNumber(directory) + 1;
+        this.current = openSegment(segmentNumber, 0);
+        this.appended = SEGMENT_HEADER_SIZE;
+        this.flusher = Thread.ofPlatform().name("journal-flusher").daemon().start(this::flushLoop);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Largest record run a single block can carry
+    public int getMaxRecordBytes() {
+        return segmentSize - SEGMENT_HEADER_SIZE - BLOCK_HEADER_SIZE;
+    }
+
+    // Appends a block holding recordCount records (the buffer's remaining bytes, which are
+    // consumed) and returns the position after it, for awaitDurable. Thread-safe.
+    public long append(long streamId, int recordCount, ByteBuffer records) {
+        if (records.remaining() > getMaxRecordBytes()) {
+            throw new IllegalArgumentException("Block of " + records.remaining() + " bytes does not fit a segment");
+        }
+        int length = BLOCK_HEADER_SIZE + records.remaining();
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            MappedByteBuffer buffer = current.buffer;
+            if (buffer.remaining() < length) {
+                rollSegment();
+                buffer = current.buffer;
+            }
+            int start = buffer.position();
+            buffer.position(start + 8);
+            buffer.putLong(streamId).putInt(recordCount).put(records);
+            crc.reset();
+            crc.update(buffer.slice(start + 8, length - 8));
+            buffer.putInt(start + 4, (int) crc.getValue());
+            buffer.putInt(start, length);
+            appended = current.base + buffer.position();
+            return appended;
+        }
+    }
+
+    // Blocks until everything up to position is on disk, asking for an early commit
+    public void awaitDurable(long position) throws InterruptedException {
+        synchronized (flushLock) {
+            while (durable < position) {
+                if (flushFailure != null) {
+                    throw flushFailure;
+                }
+                syncRequested = true;
+                flushLock.notifyAll();
+                flushLock.wait();
+            }
+        }
+    }
+
+    // Forces everything appended so far
+    public void sync() throws InterruptedException {
+        long position;
+        synchronized (this) {
+            position = appended;
+        }
+        awaitDurable(position);
+    }
+
+    // Forces what was appended and stops the flusher; appends after this fail
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        synchronized (flushLock) {
+            syncRequested = true;
+            flushLock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the journal", e);
+        }
+        current.channel.close();
+        if (flushFailure != null) {
+            throw new IOException("Journal flush failed", flushFailure);
+        }
+    }
+
+    // One pass per commit interval, or sooner on request; the pass after close() is the last
+    private void flushLoop() {
+        while (true) {
+            synchronized (flushLock) {
+                if (!syncRequested) {
+                    try {
+                        flushLock.wait(commitIntervalMillis);
+                    } catch (InterruptedException e) {
+                        // finish the pass, then check for close as usual
+                    }
+                }
+                syncRequested = false;
+            }
+
+            long target;
+            Segment[] full;
+            Segment active;
+            int from;
+            int to;
+            boolean last;
+            synchronized (this) {
+                target = appended;
+                full = retired.toArray(new Segment[0]);
+                retired.clear();
+                active = current;
+                from = active.forced;
+                to = active.buffer.position();
+                active.forced = to;
+                last = closed;
+            }
+
+            try {
+                for (Segment segment : full) {
+                    segment.buffer.force(segment.forced, segment.end - segment.forced);
+                    segment.channel.close();
+                }
+                if (to > from) {
+                    active.buffer.force(from, to - from);
+                }
+            } catch (IOException | RuntimeException e) {
+                synchronized (flushLock) {
+                    flushFailure = e instanceof IOException io ? new UncheckedIOException(io) : (RuntimeException) e;
+                    flushLock.notifyAll();
+                }
+                return;
+            }
+
+            synchronized (flushLock) {
+                durable = target;
+                flushLock.notifyAll();
+            }
+            if (last) {
+                return;
+            }
+        }
+    }
+
+    // Called under the append lock
+    private void rollSegment() {
+        Segment next;
+        try {
+            next = openSegment(segmentNumber + 1, current.base + segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // current stays open and current
+        }
+        segmentNumber++;
+        current.end = current.buffer.position();
+        retired.add(current); // only now may the flusher close it
+        current = next;
+        appended = current.base + SEGMENT_HEADER_SIZE;
+    }
+
+    private Segment openSegment(int number, long base) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(directory, number), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        return new Segment(channel, buffer, base);
+    }
+
+    static Path segmentPath(Path directory, int number) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    // Segment numbers in the directory, in order
+    static int[] segmentNumbers(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .mapToInt(name -> Integer.parseInt(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toArray();
+        }
+    }
+
+    private static int lastSegmentNumber(Path directory) throws IOException {
+        int[] numbers = segmentNumbers(directory);
+        return numbers.length == 0 ? -1 : numbers[numbers.length - 1];
+    }
+
+    // One mapped segment file
+    private static class Segment {
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long base; // position of the segment's first byte
+        private int forced; // bytes before this offset have been forced
+        private int end; // offset after the last block, once retired
+
+        Segment(FileChannel channel, MappedByteBuffer buffer, long base) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.base = base;
+        }
+    }
+}
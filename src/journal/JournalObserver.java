@@ -0,0 +1,119 @@
+package journal;
+
+import model.EventCodec;
+import model.GameEvent;
+import model.GameInput;
+import model.GameObserver;
+import model.InputRecorder;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Records every event of one engine into an EventJournal. Register it for all event
+ * types, and on a fresh engine also as the input recorder, so the journal holds what
+ * JournalVerifier needs to replay the stream:
+ *
+ *   JournalObserver recorder = new JournalObserver(journal, streamId);
+ *   engine.registerObserver(recorder);
+ *   engine.setInputRecorder(recorder);
+ *
+ * Records are encoded into a private block buffer on the engine thread, which takes
+ * tens of nanoseconds and no locks. The block goes to the journal when a match ends
+ * (after the input that ended it, so every finished match is in the journal as a whole),
+ * when the buffer fills up, and on flush(). It is durable one commit interval later, or
+ * as soon as sync() returns. Like the engine, an observer belongs to one thread.
+ */
+public class JournalObserver implements GameObserver, InputRecorder {
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+    // A full block is flushed and the record encoded again into the empty one, so every
+    // record must fit a block; the engine's largest (an attack that brings in two new
+    // strings) is under 100 bytes
+    public static final int MIN_BLOCK_SIZE = 1024;
+
+    private final EventJournal journal;
+    private final long streamId;
+    private final ByteBuffer block;
+    private final EventCodec codec = new EventCodec();
+    private int recordCount;
+    private boolean recordingInputs; // set by the BEGIN input
+    private boolean matchEnded; // flush after the input that ended the match
+    private long lastPosition; // journal position after this stream's latest block
+
+    public JournalObserver(EventJournal journal, long streamId) {
+        this(journal, streamId, DEFAULT_BLOCK_SIZE);
+    }
+
+    public JournalObserver(EventJournal journal, long streamId, int blockSize) {
+        if (blockSize < MIN_BLOCK_SIZE || blockSize > journal.getMaxRecordBytes()) {
+            throw new IllegalArgumentException("Invalid block size: " + blockSize);
+        }
+        this.journal = journal;
+        this.streamId = streamId;
+        this.block = ByteBuffer.allocate(blockSize);
+    }
+
+    public long getStreamId() {
+        return streamId;
+    }
+
+    @Override
+    public void notify(GameEvent event) {
+        int mark = block.position();
+        try {
+            codec.encode(event, block);
+        } catch (BufferOverflowException e) {
+            // Block full: send what fits and start the next block with this event
+            block.position(mark);
+            flush();
+            codec.encode(event, block);
+        }
+        recordCount++;
+
+        GameEvent.EventType type = event.getType();
+        if (type == GameEvent.EventType.MATCH_WON || type == GameEvent.EventType.MATCH_LOST) {
+            if (recordingInputs) {
+                matchEnded = true;
+            } else {
+                flush();
+            }
+        }
+    }
+
+    @Override
+    public void record(GameInput input) {
+        int mark = block.position();
+        try {
+            codec.encodeInput(input, block);
+        } catch (BufferOverflowException e) {
+            block.position(mark);
+            flush();
+            codec.encodeInput(input, block);
+        }
+        recordCount++;
+        recordingInputs = true;
+
+        if (matchEnded) {
+            matchEnded = false;
+            flush();
+        }
+    }
+
+    // Hands the records collected so far to the journal
+    public void flush() {
+        if (recordCount == 0) {
+            return;
+        }
+        block.flip();
+        lastPosition = journal.append(streamId, recordCount, block);
+        block.clear();
+        codec.reset(); // every block decodes on its own
+        recordCount = 0;
+    }
+
+    // Flushes and waits until this stream's records are on disk
+    public void sync() throws InterruptedException {
+        flush();
+        journal.awaitDurable(lastPosition);
+    }
+}
@@ -0,0 +1,195 @@
+package journal;
+
+import model.EventCodec;
+import model.GameEvent;
+import model.GameInput;
+import model.StatsTracker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads an EventJournal directory back in write order, segment by segment.
+ * A segment ends at the first empty block header; a block whose length or checksum does
+ * not hold up (a write torn by a crash) also ends its segment and is counted in
+ * getTornBlocks. Events come back as independent GameEvents with fresh payloads, and
+ * recorded inputs as independent GameInputs.
+ */
+public class JournalReader {
+    // Receives each record with the stream (engine) that produced it
+    public interface Handler {
+        void event(long streamId, GameEvent event);
+
+        default void input(long streamId, GameInput input) {
+        }
+    }
+
+    // Receives each block undecoded: its records, ready for a reset EventCodec. The buffer
+    // is a read-only view of the mapped segment and stays valid after the read.
+    public interface BlockHandler {
+        void block(long streamId, int recordCount, ByteBuffer records);
+    }
+
+    private final Path directory;
+    private long tornBlocks;
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    // Reads every segment; returns the number of events read (inputs not included)
+    public long read(Handler handler) throws IOException {
+        EventCodec codec = new EventCodec();
+        long[] events = new long[1];
+        readBlocks((streamId, recordCount, records) -> {
+            codec.reset();
+            for (int i = 0; i < recordCount; i++) {
+                if (EventCodec.isInput(records)) {
+                    handler.input(streamId, codec.decodeInput(records));
+                } else {
+                    handler.event(streamId, codec.decode(records));
+                    events[0]++;
+                }
+            }
+        });
+        return events[0];
+    }
+
+    // Reads every segment block by block; returns the number of blocks read
+    public long readBlocks(BlockHandler handler) throws IOException {
+        long blocks = 0;
+        tornBlocks = 0;
+        for (int number : EventJournal.segmentNumbers(directory)) {
+            blocks += readSegment(EventJournal.segmentPath(directory, number), handler);
+        }
+        return blocks;
+    }
+
+    // Blocks that failed their checks in the last read
+    public long getTornBlocks() {
+        return tornBlocks;
+    }
+
+    private long readSegment(Path path, BlockHandler handler) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < EventJournal.SEGMENT_HEADER_SIZE || buffer.getInt() != EventJournal.MAGIC) {
+            throw new IOException("Not a journal segment: " + path);
+        }
+        int version = buffer.getInt();
+        if (version != EventJournal.VERSION) {
+            throw new IOException("Unsupported journal version " + version + " in " + path);
+        }
+
+        CRC32C crc = new CRC32C();
+        long blocks = 0;
+        while (buffer.remaining() >= EventJournal.BLOCK_HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            if (length == 0) {
+                break; // end of the written part
+            }
+            if (length < EventJournal.BLOCK_HEADER_SIZE || length - 4 > buffer.remaining()) {
+                tornBlocks++;
+                break;
+            }
+            int checksum = buffer.getInt();
+            crc.reset();
+            crc.update(buffer.slice(start + 8, length - 8));
+            if ((int) crc.getValue() != checksum) {
+                tornBlocks++;
+                break;
+            }
+            long streamId = buffer.getLong();
+            int recordCount = buffer.getInt();
+            handler.block(streamId, recordCount, buffer.slice(start + EventJournal.BLOCK_HEADER_SIZE,
+                    length - EventJournal.BLOCK_HEADER_SIZE));
+            blocks++;
+            buffer.position(start + length);
+        }
+        return blocks;
+    }
+
+    // Usage: JournalReader <directory> [streamId]
+    // Prints event counts per type and stream, or every record of one stream.
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: JournalReader <directory> [streamId]");
+            return;
+        }
+        JournalReader reader = new JournalReader(Path.of(args[0]));
+
+        if (args.length > 1) {
+            long wanted = Long.parseLong(args[1]);
+            reader.read(new Handler() {
+                @Override
+                public void event(long streamId, GameEvent event) {
+                    if (streamId == wanted) {
+                        System.out.println(describe(event));
+                    }
+                }
+
+                @Override
+                public void input(long streamId, GameInput input) {
+                    if (streamId == wanted) {
+                        System.out.println("> " + input);
+                    }
+                }
+            });
+            return;
+        }
+
+        Map<GameEvent.EventType, Long> byType = new EnumMap<>(GameEvent.EventType.class);
+        Map<Long, Long> byStream = new TreeMap<>();
+        long start = System.nanoTime();
+        long events = reader.read((streamId, event) -> {
+            byType.merge(event.getType(), 1L, Long::sum);
+            byStream.merge(streamId, 1L, Long::sum);
+        });
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%,d events in %d streams, read in %.3f s (%,.0f events/s), torn blocks: %d%n",
+                events, byStream.size(), elapsed / 1e9, events / (elapsed / 1e9), reader.getTornBlocks());
+        for (Map.Entry<GameEvent.EventType, Long> entry : byType.entrySet()) {
+            System.out.printf("  %-20s %,d%n", entry.getKey(), entry.getValue());
+        }
+    }
+
+    // One line per event, payload fields included
+    static String describe(GameEvent event) {
+        Object data = event.getData();
+        String fields;
+        if (data instanceof GameEvent.CellAddedData d) {
+            fields = "row " + d.row + ", col " + d.col + ", value " + d.value + ", strength " + d.currentStrength;
+        } else if (data instanceof GameEvent.AttackData d) {
+            StringBuilder sb = new StringBuilder("strength " + d.strength + ", " + d.weaponName
+                    + (d.weaponActivated ? " (activated)" : "") + ", rings " + d.activeRings);
+            for (GameEvent.TargetDamage t : d.targets) {
+                sb.append(", target ").append(t.targetIndex)
+                        .append(t.missed ? " missed" : " hit for " + t.damage + (t.killed ? " (killed)" : ""));
+            }
+            fields = sb.toString();
+        } else if (data instanceof GameEvent.OpponentAttackData d) {
+            fields = "opponent " + d.attackerIndex + " for " + d.damage;
+        } else if (data instanceof StatsTracker.DamageData d) {
+            fields = d.amount + (d.isPlayer ? " to the player" : " to an opponent");
+        } else if (data instanceof StatsTracker.EquipmentActivationData d) {
+            fields = d.name;
+        } else {
+            fields = "";
+        }
+        return event.getType() + " [" + event.getSource() + "] " + fields;
+    }
+}
@@ -0,0 +1,233 @@
+package journal;
+
+import model.EventCodec;
+import model.GameEvent;
+import model.GameInput;
+import model.GameObserver;
+import model.Replayer;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Replays every stream of an EventJournal from its recorded inputs and checks that the
+ * engine produces exactly the journaled events again, in the same order.
+ *
+ * The journal is read once to find each stream's blocks (views of the mapped segments,
+ * nothing is copied), then the streams are replayed in parallel on a ForkJoinPool, one
+ * task per stream. Within a stream, the events an input caused come right before the
+ * input itself, so they are held until the input is replayed and then compared with
+ * what the replay emits, record by record in their encoded form. A stream may hold
+ * several recorded games back to back, each starting with its BEGIN input.
+ */
+public class JournalVerifier {
+    private static final int COMPARE_BUFFER_SIZE = 4096;
+
+    private final Path directory;
+    private final ForkJoinPool pool;
+    private long tornBlocks;
+
+    public JournalVerifier(Path directory) {
+        this(directory, ForkJoinPool.commonPool());
+    }
+
+    public JournalVerifier(Path directory, ForkJoinPool pool) {
+        this.directory = directory;
+        this.pool = pool;
+    }
+
+    // Outcome of one stream
+    public static class StreamResult {
+        private final long streamId;
+        private final long inputs;
+        private final long events;
+        private final String failure;
+
+        StreamResult(long streamId, long inputs, long events, String failure) {
+            this.streamId = streamId;
+            this.inputs = inputs;
+            this.events = events;
+            this.failure = failure;
+        }
+
+        public long getStreamId() {
+            return streamId;
+        }
+
+        // Inputs replayed, BEGINs included
+        public long getInputs() {
+            return inputs;
+        }
+
+        // Events the replay reproduced
+        public long getEvents() {
+            return events;
+        }
+
+        public boolean isVerified() {
+            return failure == null;
+        }
+
+        // Where and how the replay went wrong, or null
+        public String getFailure() {
+            return failure;
+        }
+    }
+
+    // Verifies every stream; results come in stream order
+    public List<StreamResult> verify() throws IOException {
+        Map<Long, List<Block>> streams = new TreeMap<>();
+        JournalReader reader = new JournalReader(directory);
+        reader.readBlocks((streamId, recordCount, records) ->
+                streams.computeIfAbsent(streamId, id -> new ArrayList<>()).add(new Block(recordCount, records)));
+        tornBlocks = reader.getTornBlocks();
+
+        List<ForkJoinTask<StreamResult>> tasks = new ArrayList<>(streams.size());
+        for (Map.Entry<Long, List<Block>> stream : streams.entrySet()) {
+            long streamId = stream.getKey();
+            List<Block> blocks = stream.getValue();
+            tasks.add(pool.submit(() -> new StreamCheck(streamId).run(blocks)));
+        }
+        List<StreamResult> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<StreamResult> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    // Blocks that failed their checks in the last verify; their streams end early
+    public long getTornBlocks() {
+        return tornBlocks;
+    }
+
+    private static class Block {
+        final int recordCount;
+        final ByteBuffer records;
+
+        Block(int recordCount, ByteBuffer records) {
+            this.recordCount = recordCount;
+            this.records = records;
+        }
+    }
+
+    // Replays one stream, comparing each replayed event with the next journaled one
+    private static class StreamCheck implements GameObserver {
+        private final long streamId;
+        private final EventCodec decoder = new EventCodec();
+        private final EventCodec comparer = new EventCodec();
+        private final ByteBuffer expectedBytes = ByteBuffer.allocate(COMPARE_BUFFER_SIZE);
+        private final ByteBuffer actualBytes = ByteBuffer.allocate(COMPARE_BUFFER_SIZE);
+        private final ArrayDeque<GameEvent> pending = new ArrayDeque<>(); // journaled, not replayed yet
+        private Replayer replayer;
+        private long inputs;
+        private long events;
+
+        StreamCheck(long streamId) {
+            this.streamId = streamId;
+        }
+
+        StreamResult run(List<Block> blocks) {
+            String failure = null;
+            try {
+                for (Block block : blocks) {
+                    ByteBuffer records = block.records.duplicate();
+                    decoder.reset();
+                    for (int i = 0; i < block.recordCount; i++) {
+                        if (EventCodec.isInput(records)) {
+                            replay(decoder.decodeInput(records));
+                        } else {
+                            pending.add(decoder.decode(records));
+                        }
+                    }
+                }
+                if (replayer == null) {
+                    failure = "no recorded inputs";
+                } else if (!pending.isEmpty()) {
+                    failure = pending.size() + " events at the end without the input that caused them";
+                }
+            } catch (IllegalStateException | IllegalArgumentException | BufferUnderflowException e) {
+                failure = e.getMessage() != null ? e.getMessage() : e.toString();
+            }
+            return new StreamResult(streamId, inputs, events, failure);
+        }
+
+        private void replay(GameInput input) {
+            if (input.getKind() == GameInput.Kind.BEGIN) {
+                if (!pending.isEmpty()) {
+                    throw new IllegalStateException(pending.size() + " events before input " + inputs + " (" + input
+                            + ")");
+                }
+                replayer = new Replayer(input);
+                replayer.getEngine().registerObserver(this);
+            } else if (replayer == null) {
+                throw new IllegalStateException("Input " + input + " before any BEGIN");
+            } else {
+                replayer.apply(input);
+                if (!pending.isEmpty()) {
+                    throw new IllegalStateException("Input " + inputs + " (" + input + ") replayed without "
+                            + JournalReader.describe(pending.peek()));
+                }
+            }
+            inputs++;
+        }
+
+        @Override
+        public void notify(GameEvent event) {
+            GameEvent expected = pending.poll();
+            if (expected == null) {
+                throw new IllegalStateException("Input " + inputs + " replayed with an extra "
+                        + JournalReader.describe(event));
+            }
+            if (!encode(expected, expectedBytes).equals(encode(event, actualBytes))) {
+                throw new IllegalStateException("Input " + inputs + " replayed " + JournalReader.describe(event)
+                        + " instead of " + JournalReader.describe(expected));
+            }
+            events++;
+        }
+
+        private ByteBuffer encode(GameEvent event, ByteBuffer buffer) {
+            buffer.clear();
+            comparer.reset();
+            comparer.encode(event, buffer);
+            return buffer.flip();
+        }
+    }
+
+    // Usage: JournalVerifier <directory>
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: JournalVerifier <directory>");
+            return;
+        }
+        JournalVerifier verifier = new JournalVerifier(Path.of(args[0]));
+
+        long start = System.nanoTime();
+        List<StreamResult> results = verifier.verify();
+        long elapsed = System.nanoTime() - start;
+
+        long inputs = 0;
+        long events = 0;
+        int verified = 0;
+        for (StreamResult result : results) {
+            inputs += result.getInputs();
+            events += result.getEvents();
+            if (result.isVerified()) {
+                verified++;
+            } else {
+                System.out.println("Stream " + result.getStreamId() + ": " + result.getFailure());
+            }
+        }
+        System.out.printf("%d of %d streams verified: %,d inputs replayed, %,d events matched in %.3f s "
+                + "(%,.0f inputs/s), torn blocks: %d%n", verified, results.size(), inputs, events, elapsed / 1e9,
+                inputs / (elapsed / 1e9), verifier.getTornBlocks());
+    }
+}
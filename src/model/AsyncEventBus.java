@@ -0,0 +1,259 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Delivers game events to an observer on its own thread, so a slow observer (console
+ * output, metrics export) does not add to the time processSum takes.
+ * Register it with the engine in place of the observer it wraps:
+ *
+ *   engine.registerObserver(new AsyncEventBus(observer, 1024, Backpressure.BLOCK), types);
+ *
+ * Events go through a bounded ring buffer with one producer (the engine thread) and one
+ * consumer (the dispatch thread). The consumer takes everything published so far as one
+ * batch and releases the slots once per batch. What happens when the buffer is full is
+ * set by the Backpressure mode. MATCH_WON and MATCH_LOST are never dropped and act as a
+ * flush barrier: the engine thread waits until the observer has handled every event up
+ * to the end of the match, so the next match never starts with events still in flight.
+ * notify, flush and close must all be called from the engine thread.
+ */
+public final class AsyncEventBus implements GameObserver, AutoCloseable {
+    public enum Backpressure {
+        BLOCK,    // wait for the observer to catch up
+        DROP,     // discard the new event
+        COALESCE  // keep only the latest event of each type until there is room again; what
+                  // is kept is still delivered in engine order
+    }
+
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PARK_NANOS = 50_000L;
+
+    private final GameObserver observer;
+    private final Backpressure backpressure;
+    private final GameEvent[] ring;
+    private final int mask;
+    private final AtomicLong published = new AtomicLong(); // events written by the producer
+    private final AtomicLong consumed = new AtomicLong();  // events handled by the observer
+    private final Thread dispatcher;
+    private volatile Thread producer; // set while the producer waits for the observer
+    private volatile boolean dispatcherParked;
+    private volatile boolean closed;
+    private volatile Throwable failure; // anything the observer threw, Errors included
+    private long droppedEvents;
+    private long coalescedEvents;
+
+    // Producer-side overflow for COALESCE: at most one event per type, in arrival order
+    // (a replaced event's type moves to the back, behind events that came before it)
+    private final GameEvent[] pendingByType = new GameEvent[GameEvent.EventType.values().length];
+    private final int[] pendingOrder = new int[GameEvent.EventType.values().length];
+    private int pendingCount;
+
+    // capacity is rounded up to a power of two
+    public AsyncEventBus(GameObserver observer, int capacity, Backpressure backpressure) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.observer = observer;
+        this.backpressure = backpressure;
+        this.ring = new GameEvent[size];
+        this.mask = size - 1;
+        this.dispatcher = new Thread(this::dispatchLoop, "game-events");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public void notify(GameEvent event) {
+        checkFailure();
+        if (closed) {
+            observer.notify(event); // no dispatch thread any more
+            return;
+        }
+        if (isMatchEnd(event.getType())) {
+            drainPending(true);
+            awaitRoom();
+            publish(event.isReused() ? event.copy() : event);
+            flush();
+            return;
+        }
+        if (event.isReused()) {
+            event = event.copy(); // the engine overwrites it once we return
+        }
+        if (pendingCount > 0) {
+            drainPending(false);
+        }
+        if (hasRoom()) {
+            if (pendingCount == 0) {
+                publish(event);
+                return;
+            }
+        } else if (backpressure == Backpressure.BLOCK) {
+            awaitRoom();
+            publish(event);
+            return;
+        } else if (backpressure == Backpressure.DROP) {
+            droppedEvents++;
+            return;
+        }
+        coalesce(event); // full, or earlier events are still waiting in the overflow
+    }
+
+    // Waits until the observer has handled every event published so far
+    public void flush() {
+        drainPending(true);
+        long target = published.get();
+        while (consumed.get() < target) {
+            checkFailure();
+            await();
+        }
+        checkFailure();
+    }
+
+    // Delivers what is still queued, then stops the dispatch thread.
+    // Events arriving after close are delivered on the caller's thread.
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            closed = true;
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    // Events discarded because the buffer was full (DROP)
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    // Events replaced by a later event of the same type (COALESCE)
+    public long getCoalescedEvents() {
+        return coalescedEvents;
+    }
+
+    private static boolean isMatchEnd(GameEvent.EventType type) {
+        return type == GameEvent.EventType.MATCH_WON || type == GameEvent.EventType.MATCH_LOST;
+    }
+
+    private boolean hasRoom() {
+        return published.get() - consumed.get() < ring.length;
+    }
+
+    private void publish(GameEvent event) {
+        long sequence = published.get();
+        ring[(int) sequence & mask] = event;
+        published.set(sequence + 1); // volatile, so it cannot pass the read of dispatcherParked
+        if (dispatcherParked) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private void coalesce(GameEvent event) {
+        int type = event.getType().ordinal();
+        if (pendingByType[type] != null) {
+            coalescedEvents++;
+            int index = 0;
+            while (pendingOrder[index] != type) {
+                index++;
+            }
+            System.arraycopy(pendingOrder, index + 1, pendingOrder, index, pendingCount - index - 1);
+            pendingCount--;
+        }
+        pendingOrder[pendingCount++] = type;
+        pendingByType[type] = event;
+    }
+
+    // Moves overflow events into the ring while there is room (or until empty when waiting)
+    private void drainPending(boolean wait) {
+        int moved = 0;
+        while (moved < pendingCount) {
+            if (!hasRoom()) {
+                if (!wait) {
+                    break;
+                }
+                awaitRoom();
+            }
+            int type = pendingOrder[moved++];
+            publish(pendingByType[type]);
+            pendingByType[type] = null;
+        }
+        System.arraycopy(pendingOrder, moved, pendingOrder, 0, pendingCount - moved);
+        pendingCount -= moved;
+    }
+
+    private void awaitRoom() {
+        while (!hasRoom()) {
+            checkFailure();
+            await();
+        }
+    }
+
+    // Producer side wait; the dispatcher unparks us after each batch while we are waiting
+    private void await() {
+        producer = Thread.currentThread();
+        LockSupport.parkNanos(this, PARK_NANOS);
+        producer = null;
+    }
+
+    private void dispatchLoop() {
+        int idleSpins = 0;
+        while (true) {
+            long start = consumed.get();
+            long end = published.get();
+            if (start == end) {
+                if (closed) {
+                    return;
+                }
+                if (idleSpins++ < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                dispatcherParked = true;
+                if (published.get() == end && !closed) { // recheck after announcing the park
+                    LockSupport.park(this);
+                }
+                dispatcherParked = false;
+                idleSpins = 0;
+                continue;
+            }
+            idleSpins = 0;
+            for (long sequence = start; sequence < end; sequence++) {
+                int slot = (int) sequence & mask;
+                GameEvent event = ring[slot];
+                ring[slot] = null;
+                deliver(event);
+            }
+            consumed.lazySet(end); // release the whole batch at once
+            Thread waiting = producer;
+            if (waiting != null) {
+                LockSupport.unpark(waiting);
+            }
+        }
+    }
+
+    private void deliver(GameEvent event) {
+        if (failure != null) {
+            return; // keep consuming so the producer never waits forever
+        }
+        try {
+            observer.notify(event);
+        } catch (Throwable e) { // an Error would otherwise end the thread and strand the producer
+            failure = e;
+        }
+    }
+
+    private void checkFailure() {
+        Throwable e = failure;
+        if (e != null) {
+            throw new IllegalStateException("Observer failed on the event thread", e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package model;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Compact board with the same rules as GameBoard, 3x3 by default.
+ * Cell values live in one flat int array and fill membership is a bitset with one bit
+ * per cell at index row * size + col (a single word for boards of up to 64 cells).
+ * A running count of cells in the fill makes isFillComplete a single compare, and
+ * resetFill clears only the bitset words. Sum lookups go through a CellValueIndex.
+ * Draws values in the same order as GameBoard, so a seeded engine plays identical
+ * matches on either board.
+ */
+public class BitBoard implements Board {
+    private static final int DEFAULT_MIN = 0;
+    private static final int DEFAULT_MAX = 15;
+    private final int boardSize;
+    private final int centerIndex;
+    private final int[] values;
+    private final long[] fillWords;
+    private int fillCount;
+    private int firstUnfilledWord; // every outer cell in earlier words is in the fill
+    private int minValue;
+    private int maxValue;
+    private final RandomGenerator random;
+    private final CellValueIndex valueIndex; // value -> outer cells holding it
+
+    public BitBoard(RandomGenerator random) {
+        this(random, DEFAULT_SIZE);
+    }
+
+    public BitBoard(RandomGenerator random, int boardSize) {
+        if (boardSize < 2) {
+            throw new IllegalArgumentException("Board size must be at least 2");
+        }
+        int cellCount = boardSize * boardSize;
+        this.boardSize = boardSize;
+        this.centerIndex = (boardSize / 2) * boardSize + boardSize / 2;
+        this.values = new int[cellCount];
+        this.fillWords = new long[(cellCount + Long.SIZE - 1) / Long.SIZE];
+        this.fillCount = 0;
+        this.firstUnfilledWord = 0;
+        this.minValue = DEFAULT_MIN;
+        this.maxValue = DEFAULT_MAX;
+        this.random = random;
+        this.valueIndex = CellValueIndex.create(cellCount, DEFAULT_MAX);
+
+        for (int i = 0; i < cellCount; i++) {
+            values[i] = nextValue();
+            if (i != centerIndex) {
+                valueIndex.add(i, values[i]);
+            }
+        }
+    }
+
+    private int nextValue() {
+        return random.nextInt(maxValue - minValue + 1) + minValue;
+    }
+
+    @Override
+    public void regenerateCellValue(int row, int col) {
+        setCellValue(row, col, nextValue());
+    }
+
+    @Override
+    public int getCellValue(int row, int col) {
+        return values[getIndex(row, col)];
+    }
+
+    @Override
+    public void setCellValue(int row, int col, int value) {
+        int index = getIndex(row, col);
+        if (index != centerIndex) {
+            valueIndex.move(index, values[index], value);
+        }
+        values[index] = value;
+    }
+
+    @Override
+    public int getCenterValue() {
+        return values[centerIndex];
+    }
+
+    @Override
+    public boolean isOuterCell(int row, int col) {
+        return getIndex(row, col) != centerIndex;
+    }
+
+    @Override
+    public boolean isInFill(int row, int col) {
+        int index = getIndex(row, col);
+        return (fillWords[index >>> 6] & (1L << index)) != 0;
+    }
+
+    @Override
+    public void addToFill(int row, int col) {
+        int index = getIndex(row, col);
+        long bit = 1L << index; // shift uses the low 6 bits only
+        if (index != centerIndex && (fillWords[index >>> 6] & bit) == 0) {
+            fillWords[index >>> 6] |= bit;
+            fillCount++;
+            valueIndex.markInFill(index, values[index]);
+        }
+    }
+
+    @Override
+    public void resetFill() {
+        Arrays.fill(fillWords, 0L);
+        fillCount = 0;
+        firstUnfilledWord = 0;
+        valueIndex.clearFill();
+    }
+
+    @Override
+    public boolean isFillComplete() {
+        return fillCount == values.length - 1;
+    }
+
+    @Override
+    public int countMatches(int sum) {
+        return valueIndex.count(sum - values[centerIndex]);
+    }
+
+    @Override
+    public int getMatch(int sum, int n) {
+        return valueIndex.get(sum - values[centerIndex], n);
+    }
+
+    @Override
+    public int findMatchingMask(int sum) {
+        return valueIndex.mask(sum - values[centerIndex]);
+    }
+
+    @Override
+    public int findFirstMatchNotInFill(int sum) {
+        return valueIndex.firstNotInFill(sum - values[centerIndex]);
+    }
+
+    // Scans a word at a time; the fill only grows until reset, so full words are skipped for good
+    @Override
+    public int findFirstCellNotInFill() {
+        while (firstUnfilledWord < fillWords.length) {
+            long open = ~(fillWords[firstUnfilledWord] | unusableBits(firstUnfilledWord));
+            if (open != 0) {
+                return (firstUnfilledWord << 6) + Long.numberOfTrailingZeros(open);
+            }
+            firstUnfilledWord++;
+        }
+        return -1;
+    }
+
+    // Bits of a fill word that can never be set: the center and positions past the last cell
+    private long unusableBits(int word) {
+        long bits = 0;
+        if (centerIndex >>> 6 == word) {
+            bits |= 1L << centerIndex;
+        }
+        int cellsInWord = values.length - (word << 6);
+        if (cellsInWord < Long.SIZE) {
+            bits |= -1L << cellsInWord;
+        }
+        return bits;
+    }
+
+    @Override
+    public void setValueRange(int min, int max) {
+        if (min < 0 || max < min || max - min == Integer.MAX_VALUE) { // the range size must fit an int
+            throw new IllegalArgumentException("Invalid value range: " + min + " to " + max);
+        }
+        this.minValue = min;
+        this.maxValue = max;
+    }
+
+    @Override
+    public int getMinValue() {
+        return minValue;
+    }
+
+    @Override
+    public int getMaxValue() {
+        return maxValue;
+    }
+
+    @Override
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    @Override
+    public int getIndex(int row, int col) {
+        return row * boardSize + col;
+    }
+}
@@ -0,0 +1,110 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The game board as seen by GameEngine: a square grid with one center cell at
+ * [size / 2][size / 2] and outer cells that can be added to the current fill.
+ * GameBoard keeps a Cell object per position, BitBoard packs the same state into primitives.
+ * Cells are also addressed by index (row * size + col).
+ */
+public interface Board {
+    int DEFAULT_SIZE = 3;
+
+    // Creates the board used for each new match
+    interface Factory {
+        Board create(RandomGenerator random);
+    }
+
+    void regenerateCellValue(int row, int col);
+
+    int getCellValue(int row, int col);
+
+    void setCellValue(int row, int col, int value);
+
+    boolean isInFill(int row, int col);
+
+    void addToFill(int row, int col);
+
+    void resetFill();
+
+    boolean isFillComplete();
+
+    // Number of outer cells whose value plus the center equals sum
+    int countMatches(int sum);
+
+    // Index of the n-th (0-based) outer cell whose value plus the center equals sum
+    int getMatch(int sum, int n);
+
+    // Bit (row * size + col) is set for each outer cell whose value plus the center equals sum.
+    // Only available on boards of at most 32 cells.
+    int findMatchingMask(int sum);
+
+    // Index of a matching outer cell not yet in the fill, or -1 if none
+    int findFirstMatchNotInFill(int sum);
+
+    // Index of the first outer cell (row-major) not yet in the fill, or -1 if the fill is complete
+    int findFirstCellNotInFill();
+
+    void setValueRange(int min, int max);
+
+    int getMinValue();
+
+    int getMaxValue();
+
+    int getBoardSize();
+
+    // {row, col} pairs of the matching outer cells
+    default List<int[]> findMatchingCells(int sum) {
+        int count = countMatches(sum);
+        List<int[]> matches = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            int index = getMatch(sum, n);
+            matches.add(new int[] { getRow(index), getCol(index) });
+        }
+        return matches;
+    }
+
+    default int getCenterRow() {
+        return getBoardSize() / 2;
+    }
+
+    default int getCenterCol() {
+        return getBoardSize() / 2;
+    }
+
+    default int getCenterValue() {
+        return getCellValue(getCenterRow(), getCenterCol());
+    }
+
+    default void setCenterValue(int value) {
+        setCellValue(getCenterRow(), getCenterCol(), value);
+    }
+
+    default boolean isOuterCell(int row, int col) {
+        return !(row == getCenterRow() && col == getCenterCol());
+    }
+
+    default boolean isCellRowColValid(int row, int col) {
+        int size = getBoardSize();
+        return (row >= 0 && row < size) && (col >= 0 && col < size);
+    }
+
+    default int getOuterCellCount() {
+        return getBoardSize() * getBoardSize() - 1;
+    }
+
+    default int getIndex(int row, int col) {
+        return row * getBoardSize() + col;
+    }
+
+    default int getRow(int index) {
+        return index / getBoardSize();
+    }
+
+    default int getCol(int index) {
+        return index % getBoardSize();
+    }
+}
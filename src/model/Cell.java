@@ -9,10 +9,12 @@ public class Cell {
     private boolean isPartOfCurrentFill;
     private final int row;
     private final int col;
+    private final int boardSize;
 
-    public Cell(int row, int col, int initialValue) {
+    public Cell(int row, int col, int initialValue, int boardSize) {
         this.row = row;
         this.col = col;
+        this.boardSize = boardSize;
         this.value = initialValue;
         this.isPartOfCurrentFill = false;
     }
@@ -30,7 +32,7 @@ public class Cell {
     }
 
     public boolean isCenter() {
-        return row == 1 && col == 1;
+        return row == boardSize / 2 && col == boardSize / 2;
     }
 
     public boolean isOuter() {
@@ -41,7 +43,8 @@ public class Cell {
         return value;
     }
 
-    public void setValue(int newValue) {
+    // Package-private: values change through the board so its value index stays in sync
+    void setValue(int newValue) {
         this.value = newValue;
     }
 }
@@ -0,0 +1,297 @@
+package model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Index from cell value to the outer cells currently holding that value, along with
+ * which of those cells are already in the fill. Kept up to date as cell values change,
+ * so finding the cells that match a sum is a lookup of index[sum - center] instead of
+ * a scan over the board.
+ *
+ * Boards of up to 32 cells use one bitmask per value, which keeps matches in row-major
+ * order. Larger boards use one bucket per value, partitioned into cells not in the fill
+ * followed by cells in the fill, so every operation is O(1) regardless of board size
+ * and clearing the fill is O(number of distinct values).
+ *
+ * Both keep their per-value data in arrays indexed by slot. Values below DENSE_VALUES
+ * are their own slot; larger ones (after "cheat max" raises the maximum) get a slot
+ * above that through a map, and give it back when no cell holds them any more. So the
+ * arrays are sized by the number of distinct values on the board, never by the largest
+ * value.
+ */
+abstract class CellValueIndex {
+    private static final int MAX_MASK_CELLS = Integer.SIZE;
+    static final int DENSE_VALUES = 4096;
+
+    private final HashMap<Integer, Integer> sparseSlots = new HashMap<>(); // large value -> slot
+    private int[] freeSlots = new int[8];
+    private int freeSlotCount;
+    private int nextSparseSlot = DENSE_VALUES;
+
+    static CellValueIndex create(int cellCount, int maxValue) {
+        if (cellCount <= MAX_MASK_CELLS) {
+            return new MaskIndex(maxValue);
+        }
+        return new BucketIndex(cellCount, maxValue);
+    }
+
+    // Registers an outer cell (not in the fill) holding the given value
+    abstract void add(int cellIndex, int value);
+
+    // Moves a cell to another value, keeping its fill membership
+    abstract void move(int cellIndex, int oldValue, int newValue);
+
+    abstract void markInFill(int cellIndex, int value);
+
+    abstract void clearFill();
+
+    // Number of outer cells holding the value
+    abstract int count(int value);
+
+    // The n-th (0-based) cell holding the value
+    abstract int get(int value, int n);
+
+    // A cell holding the value that is not in the fill, or -1 if there is none
+    abstract int firstNotInFill(int value);
+
+    // Bitmask of cells holding the value; only available on boards of up to 32 cells
+    int mask(int value) {
+        throw new IllegalStateException("Bitmask queries need a board of at most " + MAX_MASK_CELLS + " cells");
+    }
+
+    // Slot of a value about to be stored, taking a free one for a large value seen first
+    int slotFor(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Cell values cannot be negative: " + value);
+        }
+        if (value < DENSE_VALUES) {
+            return value;
+        }
+        Integer slot = sparseSlots.get(value);
+        if (slot == null) {
+            slot = freeSlotCount > 0 ? freeSlots[--freeSlotCount] : nextSparseSlot++;
+            sparseSlots.put(value, slot);
+        }
+        return slot;
+    }
+
+    // Slot of a value being looked up, or -1 when it has none (negative or not stored)
+    int slotOf(int value) {
+        if (value < DENSE_VALUES) {
+            return value < 0 ? -1 : value;
+        }
+        Integer slot = sparseSlots.get(value);
+        return slot == null ? -1 : slot;
+    }
+
+    // Called once no cell holds the value; frees the slot of a large value
+    void release(int value) {
+        if (value < DENSE_VALUES) {
+            return;
+        }
+        Integer slot = sparseSlots.remove(value);
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    // Grows for slots above the original range, e.g. after "cheat max" raises the maximum.
+    // The dense part doubles up to DENSE_VALUES, the sparse part doubles on its own.
+    static int grownLength(int currentLength, int slot) {
+        if (slot < DENSE_VALUES) {
+            return Math.max(slot + 1, Math.min(currentLength * 2, DENSE_VALUES));
+        }
+        int sparseLength = Math.max(currentLength - DENSE_VALUES, 0);
+        return Math.max(slot + 1, DENSE_VALUES + Math.max(8, sparseLength * 2));
+    }
+
+    private static class MaskIndex extends CellValueIndex {
+        private int[] masks;
+        private int fillMask;
+
+        MaskIndex(int maxValue) {
+            this.masks = new int[Math.min(maxValue, DENSE_VALUES - 1) + 1];
+        }
+
+        @Override
+        void add(int cellIndex, int value) {
+            int slot = slotFor(value);
+            if (slot >= masks.length) {
+                masks = Arrays.copyOf(masks, grownLength(masks.length, slot));
+            }
+            masks[slot] |= 1 << cellIndex;
+        }
+
+        @Override
+        void move(int cellIndex, int oldValue, int newValue) {
+            int slot = slotOf(oldValue);
+            masks[slot] &= ~(1 << cellIndex);
+            if (masks[slot] == 0) {
+                release(oldValue);
+            }
+            add(cellIndex, newValue);
+        }
+
+        @Override
+        void markInFill(int cellIndex, int value) {
+            fillMask |= 1 << cellIndex;
+        }
+
+        @Override
+        void clearFill() {
+            fillMask = 0;
+        }
+
+        @Override
+        int count(int value) {
+            return Integer.bitCount(mask(value));
+        }
+
+        @Override
+        int get(int value, int n) {
+            int bits = mask(value);
+            for (int i = 0; i < n; i++) {
+                bits &= bits - 1; // clear lowest set bit
+            }
+            return Integer.numberOfTrailingZeros(bits);
+        }
+
+        @Override
+        int firstNotInFill(int value) {
+            int candidates = mask(value) & ~fillMask;
+            return candidates == 0 ? -1 : Integer.numberOfTrailingZeros(candidates);
+        }
+
+        @Override
+        int mask(int value) {
+            int slot = slotOf(value);
+            if (slot < 0 || slot >= masks.length) {
+                return 0;
+            }
+            return masks[slot];
+        }
+    }
+
+    private static class BucketIndex extends CellValueIndex {
+        private static final int[] EMPTY = new int[0];
+        private int[][] buckets;       // value slot -> cells, not-in-fill cells first
+        private int[] sizes;           // value slot -> number of cells in the bucket
+        private int[] freeCounts;      // value slot -> number of cells not in the fill
+        private final int[] positions; // cell -> position inside its bucket
+
+        BucketIndex(int cellCount, int maxValue) {
+            int length = Math.min(maxValue, DENSE_VALUES - 1) + 1;
+            this.buckets = new int[length][];
+            this.sizes = new int[length];
+            this.freeCounts = new int[length];
+            this.positions = new int[cellCount];
+            Arrays.fill(buckets, EMPTY);
+        }
+
+        @Override
+        void add(int cellIndex, int value) {
+            insert(cellIndex, slotFor(value), false);
+        }
+
+        @Override
+        void move(int cellIndex, int oldValue, int newValue) {
+            int oldSlot = slotOf(oldValue);
+            boolean inFill = remove(cellIndex, oldSlot);
+            if (sizes[oldSlot] == 0) {
+                release(oldValue);
+            }
+            insert(cellIndex, slotFor(newValue), inFill);
+        }
+
+        @Override
+        void markInFill(int cellIndex, int value) {
+            int slot = slotOf(value);
+            int position = positions[cellIndex];
+            if (position < freeCounts[slot]) {
+                // Swap with the last free cell, then shrink the free part over it
+                int lastFree = --freeCounts[slot];
+                place(slot, position, buckets[slot][lastFree]);
+                place(slot, lastFree, cellIndex);
+            }
+        }
+
+        @Override
+        void clearFill() {
+            System.arraycopy(sizes, 0, freeCounts, 0, sizes.length);
+        }
+
+        @Override
+        int count(int value) {
+            int slot = slotOf(value);
+            return slot < 0 || slot >= sizes.length ? 0 : sizes[slot];
+        }
+
+        @Override
+        int get(int value, int n) {
+            return buckets[slotOf(value)][n];
+        }
+
+        @Override
+        int firstNotInFill(int value) {
+            int slot = slotOf(value);
+            if (slot < 0 || slot >= sizes.length || freeCounts[slot] == 0) {
+                return -1;
+            }
+            return buckets[slot][0];
+        }
+
+        private void insert(int cellIndex, int slot, boolean inFill) {
+            ensureCapacity(slot);
+            int size = sizes[slot]++;
+            if (inFill) {
+                place(slot, size, cellIndex);
+            } else {
+                // Make room at the end of the free part by moving the first in-fill cell to the end
+                int free = freeCounts[slot]++;
+                if (free < size) {
+                    place(slot, size, buckets[slot][free]);
+                }
+                place(slot, free, cellIndex);
+            }
+        }
+
+        // Removes a cell from its bucket and returns whether it was in the fill
+        private boolean remove(int cellIndex, int slot) {
+            int position = positions[cellIndex];
+            boolean inFill = position >= freeCounts[slot];
+            if (!inFill) {
+                // Swap to the end of the free part so the hole sits at the boundary
+                int lastFree = --freeCounts[slot];
+                place(slot, position, buckets[slot][lastFree]);
+                position = lastFree;
+            }
+            // Fill the hole with the last cell of the bucket
+            int last = --sizes[slot];
+            if (last != position) {
+                place(slot, position, buckets[slot][last]);
+            }
+            return inFill;
+        }
+
+        private void place(int slot, int position, int cellIndex) {
+            buckets[slot][position] = cellIndex;
+            positions[cellIndex] = position;
+        }
+
+        private void ensureCapacity(int slot) {
+            if (slot >= sizes.length) {
+                int length = grownLength(sizes.length, slot);
+                int oldLength = sizes.length;
+                buckets = Arrays.copyOf(buckets, length);
+                Arrays.fill(buckets, oldLength, length, EMPTY);
+                sizes = Arrays.copyOf(sizes, length);
+                freeCounts = Arrays.copyOf(freeCounts, length);
+            }
+            if (sizes[slot] == buckets[slot].length) {
+                buckets[slot] = Arrays.copyOf(buckets[slot], Math.max(8, sizes[slot] * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StatsTracker that many engines on many threads can share, e.g. one tracker for all
+ * shards of a parallel simulation. Every count is a LongAdder, so increments never take
+ * a lock and contended updates spread over per-thread cells instead of retrying on one
+ * shared word. Counting, merging and the accessors are StatsTracker's; only the
+ * counters differ. Totals read while engines are still running are a recent, not an
+ * exact, snapshot.
+ */
+public class ConcurrentStatsTracker extends StatsTracker {
+    public ConcurrentStatsTracker() {
+        super(new AdderCounters());
+    }
+
+    private static final class AdderCounters implements Counters {
+        private final LongAdder[] counts = new LongAdder[SLOT_COUNT];
+
+        AdderCounters() {
+            for (int slot = 0; slot < SLOT_COUNT; slot++) {
+                counts[slot] = new LongAdder();
+            }
+        }
+
+        @Override
+        public void add(int slot, long amount) {
+            counts[slot].add(amount);
+        }
+
+        @Override
+        public long get(int slot) {
+            return counts[slot].sum();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package model;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The complete state of a game in a GameEngine: board values, value range and fill, the
+ * fill's cells and age, player and opponent health, equipment, the turn counters, cheats
+ * and the random source's state. Taken with GameEngine.snapshot and put back with
+ * GameEngine.restore, or with GameEngine.fromSnapshot for a new engine.
+ *
+ * A snapshot is plain data in primitive arrays. Taking one into an existing snapshot of
+ * the same board size allocates nothing, and neither does restoring it, so a search can
+ * keep one snapshot per branch point and restore a scratch engine from it for every
+ * branch. The board's fill is not stored separately: it is the set of cells in the
+ * fill, which are added back in order. The fill's age is stored rather than its start
+ * time, so a snapshot restored under another clock (after a restart, say) continues the
+ * fill where it stood.
+ *
+ * writeTo and readFrom give the compact binary form, for checkpoints: a version byte,
+ * then unsigned LEB128 varints, with ids and flags as single bytes. A 3x3 game takes
+ * under 100 bytes.
+ */
+public final class EngineSnapshot {
+    private static final int VERSION = 1;
+    private static final int LOW_HEALTH = 1;
+    private static final int HIGH_HEALTH = 2;
+    private static final int EQUIPPED_WEAPON = 4;
+    private static final int EQUIPPED_RINGS = 8;
+
+    int boardKind;
+    int boardSize;
+    long seed;
+    long randomState;
+    int minValue;
+    int maxValue;
+    int[] cellValues = new int[0];
+    long fillAgeNanos;
+    int fillCellCount;
+    int[] fillCells = new int[0]; // board index of each cell, in the order added
+    int[] fillValues = new int[0];
+    int playerHealth;
+    int weaponId;
+    final int[] ringIds = new int[3];
+    int[] opponentHealths = new int[0];
+    int turnCounter;
+    int nextOpponentAttack;
+    boolean cheatLowHealth;
+    boolean cheatHighHealth;
+    int equippedWeaponNumber; // -1 for none
+    boolean hasEquippedRings;
+    final int[] equippedRingNumbers = new int[3];
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    // Seed of the engine the snapshot was taken from
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTurnCounter() {
+        return turnCounter;
+    }
+
+    public int getPlayerHealth() {
+        return playerHealth;
+    }
+
+    // Sizes the arrays for a board, keeping them when they fit
+    void prepare(int boardSize, int opponentCount) {
+        int cellCount = boardSize * boardSize;
+        this.boardSize = boardSize;
+        if (cellValues.length != cellCount) {
+            cellValues = new int[cellCount];
+        }
+        if (opponentHealths.length != opponentCount) {
+            opponentHealths = new int[opponentCount];
+        }
+        fillCellCount = 0;
+    }
+
+    void addFillCell(int index, int value) {
+        if (fillCellCount == fillCells.length) {
+            int capacity = Math.max(8, fillCellCount * 2);
+            fillCells = Arrays.copyOf(fillCells, capacity);
+            fillValues = Arrays.copyOf(fillValues, capacity);
+        }
+        fillCells[fillCellCount] = index;
+        fillValues[fillCellCount] = value;
+        fillCellCount++;
+    }
+
+    // Throws BufferOverflowException when out is too small; out's position is then undefined
+    public void writeTo(ByteBuffer out) {
+        out.put((byte) VERSION);
+        out.put((byte) boardKind);
+        EventCodec.putVarint(out, boardSize);
+        EventCodec.putVarlong(out, seed);
+        EventCodec.putVarlong(out, randomState);
+        EventCodec.putVarint(out, minValue);
+        EventCodec.putVarint(out, maxValue);
+        for (int value : cellValues) {
+            EventCodec.putVarint(out, value);
+        }
+        EventCodec.putVarlong(out, fillAgeNanos);
+        EventCodec.putVarint(out, fillCellCount);
+        for (int i = 0; i < fillCellCount; i++) {
+            EventCodec.putVarint(out, fillCells[i]);
+            EventCodec.putVarint(out, fillValues[i]);
+        }
+        EventCodec.putVarint(out, playerHealth);
+        out.put((byte) weaponId);
+        for (int id : ringIds) {
+            out.put((byte) id);
+        }
+        out.put((byte) opponentHealths.length);
+        for (int health : opponentHealths) {
+            EventCodec.putVarint(out, health);
+        }
+        EventCodec.putVarint(out, turnCounter);
+        EventCodec.putVarint(out, nextOpponentAttack);
+        out.put((byte) ((cheatLowHealth ? LOW_HEALTH : 0) | (cheatHighHealth ? HIGH_HEALTH : 0)
+                | (equippedWeaponNumber >= 0 ? EQUIPPED_WEAPON : 0) | (hasEquippedRings ? EQUIPPED_RINGS : 0)));
+        if (equippedWeaponNumber >= 0) {
+            out.put((byte) equippedWeaponNumber);
+        }
+        if (hasEquippedRings) {
+            for (int id : equippedRingNumbers) {
+                out.put((byte) id);
+            }
+        }
+    }
+
+    // Reads what writeTo wrote, replacing this snapshot's contents. A record that is cut
+    // short (BufferUnderflowException) or does not describe a valid game
+    // (IllegalArgumentException) leaves this snapshot as it was; in's position is then
+    // undefined
+    public EngineSnapshot readFrom(ByteBuffer in) {
+        EngineSnapshot read = new EngineSnapshot();
+        read.readFields(in);
+        take(read);
+        return this;
+    }
+
+    // Decodes into this (new) snapshot, checking everything restore relies on
+    private void readFields(ByteBuffer in) {
+        int version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        }
+        boardKind = in.get();
+        if (boardKind != GameInput.GAME_BOARD && boardKind != GameInput.BIT_BOARD) {
+            throw new IllegalArgumentException("Unknown board kind: " + boardKind);
+        }
+        boardSize = EventCodec.getVarint(in);
+        if (boardSize < 2 || boardSize > 46_340) { // size * size must fit an int
+            throw new IllegalArgumentException("Invalid board size: " + boardSize);
+        }
+        seed = EventCodec.getVarlong(in);
+        randomState = EventCodec.getVarlong(in);
+        minValue = EventCodec.getVarint(in);
+        maxValue = EventCodec.getVarint(in);
+        if (minValue < 0 || maxValue < minValue || maxValue - minValue == Integer.MAX_VALUE) { // as Board.setValueRange
+            throw new IllegalArgumentException("Invalid value range: " + minValue + " to " + maxValue);
+        }
+        int cellCount = boardSize * boardSize;
+        if (cellCount > in.remaining()) { // a cell takes at least a byte; checked before allocating
+            throw new BufferUnderflowException();
+        }
+        cellValues = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cellValues[i] = readValue(in);
+        }
+        fillAgeNanos = EventCodec.getVarlong(in);
+        int fillCells = EventCodec.getVarint(in);
+        if (fillCells < 0) {
+            throw new IllegalArgumentException("Invalid fill cell count: " + fillCells);
+        }
+        // Extra moves add cells again, so a fill can outgrow the board; its cells take
+        // at least two bytes each
+        if (fillCells > in.remaining() / 2) {
+            throw new BufferUnderflowException();
+        }
+        this.fillCells = new int[fillCells];
+        this.fillValues = new int[fillCells];
+        for (int i = 0; i < fillCells; i++) {
+            int index = EventCodec.getVarint(in);
+            if (index < 0 || index >= cellCount) {
+                throw new IllegalArgumentException("Fill cell " + index + " is off the board");
+            }
+            this.fillCells[i] = index;
+            this.fillValues[i] = readValue(in);
+        }
+        fillCellCount = fillCells;
+        playerHealth = EventCodec.getVarint(in);
+        weaponId = readId(in, EquipmentRegistry.WEAPON_COUNT, "weapon");
+        for (int i = 0; i < ringIds.length; i++) {
+            ringIds[i] = readId(in, EquipmentRegistry.RING_COUNT, "ring");
+        }
+        opponentHealths = new int[in.get() & 0xFF];
+        for (int i = 0; i < opponentHealths.length; i++) {
+            opponentHealths[i] = EventCodec.getVarint(in);
+        }
+        turnCounter = EventCodec.getVarint(in);
+        nextOpponentAttack = EventCodec.getVarint(in);
+        int flags = in.get();
+        cheatLowHealth = (flags & LOW_HEALTH) != 0;
+        cheatHighHealth = (flags & HIGH_HEALTH) != 0;
+        equippedWeaponNumber = (flags & EQUIPPED_WEAPON) != 0
+                ? readId(in, EquipmentRegistry.WEAPON_COUNT, "weapon") : -1;
+        hasEquippedRings = (flags & EQUIPPED_RINGS) != 0;
+        if (hasEquippedRings) {
+            for (int i = 0; i < equippedRingNumbers.length; i++) {
+                equippedRingNumbers[i] = readId(in, EquipmentRegistry.RING_COUNT, "ring");
+            }
+        }
+    }
+
+    private static int readValue(ByteBuffer in) {
+        int value = EventCodec.getVarint(in);
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid cell value: " + value);
+        }
+        return value;
+    }
+
+    private static int readId(ByteBuffer in, int count, String kind) {
+        int id = in.get();
+        if (id < 0 || id >= count) {
+            throw new IllegalArgumentException("Unknown " + kind + " id: " + id);
+        }
+        return id;
+    }
+
+    // Takes over a fully read snapshot's contents
+    private void take(EngineSnapshot read) {
+        boardKind = read.boardKind;
+        boardSize = read.boardSize;
+        seed = read.seed;
+        randomState = read.randomState;
+        minValue = read.minValue;
+        maxValue = read.maxValue;
+        cellValues = read.cellValues;
+        fillAgeNanos = read.fillAgeNanos;
+        fillCellCount = read.fillCellCount;
+        fillCells = read.fillCells;
+        fillValues = read.fillValues;
+        playerHealth = read.playerHealth;
+        weaponId = read.weaponId;
+        System.arraycopy(read.ringIds, 0, ringIds, 0, ringIds.length);
+        opponentHealths = read.opponentHealths;
+        turnCounter = read.turnCounter;
+        nextOpponentAttack = read.nextOpponentAttack;
+        cheatLowHealth = read.cheatLowHealth;
+        cheatHighHealth = read.cheatHighHealth;
+        equippedWeaponNumber = read.equippedWeaponNumber;
+        hasEquippedRings = read.hasEquippedRings;
+        System.arraycopy(read.equippedRingNumbers, 0, equippedRingNumbers, 0, equippedRingNumbers.length);
+    }
+}
@@ -0,0 +1,93 @@
+package model;
+
+import model.ring.*;
+import model.weapon.*;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Central list of every weapon and ring, each with a stable small integer id.
+ * The ids are the numbers used by the "cheat weapon" and "cheat rings" commands, with
+ * 0 meaning nothing equipped, so code that needs to tell equipment apart (statistics,
+ * empty slot checks, bonus lookups) can index arrays instead of comparing names.
+ * Weapons and rings are stateless, so each one exists once and is shared by every
+ * player and engine.
+ */
+public final class EquipmentRegistry {
+    public static final int NO_WEAPON = 0;
+    public static final int LIGHTNING_WAND = 1;
+    public static final int FIRE_STAFF = 2;
+    public static final int FROST_BOW = 3;
+    public static final int STONE_HAMMER = 4;
+    public static final int DIAMOND_SWORD = 5;
+    public static final int SPARKLE_DAGGER = 6;
+
+    public static final int NO_RING = 0;
+    public static final int BIG_ONE_RING = 1;
+    public static final int LITTLE_ONE_RING = 2;
+    public static final int TENACITY_RING = 3;
+    public static final int MEH_RING = 4;
+    public static final int PRIME_DIRECTIVE_RING = 5;
+    public static final int TWO_RING = 6;
+
+    // The shared instances, indexed by id
+    private static final Weapon[] WEAPONS = { new NoWeapon(), new LightningWand(), new FireStaff(),
+            new FrostBow(), new StoneHammer(), new DiamondSword(), new SparkleDagger() };
+    private static final Ring[] RINGS = { new NoRing(), new BigOneRing(), new LittleOneRing(),
+            new TenacityRing(), new MehRing(), new PrimeDirectiveRing(), new TwoRing() };
+
+    public static final int WEAPON_COUNT = WEAPONS.length;
+    public static final int RING_COUNT = RINGS.length;
+
+    static {
+        for (int id = 0; id < WEAPON_COUNT; id++) {
+            if (WEAPONS[id].getId() != id) {
+                throw new IllegalStateException(WEAPONS[id].getName() + " is registered under id " + id);
+            }
+        }
+        for (int id = 0; id < RING_COUNT; id++) {
+            if (RINGS[id].getId() != id) {
+                throw new IllegalStateException(RINGS[id].getName() + " is registered under id " + id);
+            }
+        }
+    }
+
+    private EquipmentRegistry() {
+    }
+
+    public static Weapon getWeapon(int id) {
+        if (id < 0 || id >= WEAPON_COUNT) {
+            throw new IllegalArgumentException("Invalid weapon number: " + id);
+        }
+        return WEAPONS[id];
+    }
+
+    public static Ring getRing(int id) {
+        if (id < 0 || id >= RING_COUNT) {
+            throw new IllegalArgumentException("Invalid ring number: " + id);
+        }
+        return RINGS[id];
+    }
+
+    // Any weapon except NoWeapon, with equal odds
+    public static int randomWeaponId(RandomGenerator random) {
+        return random.nextInt(WEAPON_COUNT - 1) + 1;
+    }
+
+    // Any ring except NoRing, with equal odds
+    public static int randomRingId(RandomGenerator random) {
+        return random.nextInt(RING_COUNT - 1) + 1;
+    }
+
+    public static String weaponName(int id) {
+        return WEAPONS[id].getName();
+    }
+
+    public static String ringName(int id) {
+        return RINGS[id].getName();
+    }
+
+    public static double ringMultiplier(int id) {
+        return RINGS[id].getDamageMultiplier();
+    }
+}
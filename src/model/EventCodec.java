@@ -0,0 +1,280 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact binary form of GameEvents, for journals and anything else that has to keep
+ * events after the observer callback.
+ *
+ * A record is the event type, its source and the payload fields, with ints as unsigned
+ * LEB128 varints and flags and small indices as single bytes. Weapons and rings are
+ * stored as EquipmentRegistry ids; their names are looked up again when decoding.
+ * Strings that are not ids (sources, weapon activation texts) go through a string table:
+ * the first use writes the text and later uses write its table index. The table spans
+ * the records written since the last reset(), so a run of records can only be decoded
+ * from its start, by a codec that was reset at the same point.
+ *
+ * GameInputs have records of their own, told apart from events by the high bit of the
+ * first byte: the input kind, the seed (BEGIN only) and arguments as varints, then the
+ * clock reads, each as the zigzag varint difference from the previous read of the run.
+ *
+ * Encoding reads reused events in place and allocates nothing once the table holds the
+ * few strings the engine uses. A codec keeps per-run state, so it is not thread-safe.
+ */
+public final class EventCodec {
+    private static final GameEvent.EventType[] TYPES = GameEvent.EventType.values();
+    private static final GameInput.Kind[] INPUT_KINDS = GameInput.Kind.values();
+    private static final int INPUT_FLAG = 0x80;
+    private static final int MAX_STRINGS = 64;
+    private static final byte KILLED = 1;
+    private static final byte MISSED = 2;
+
+    private final String[] strings = new String[MAX_STRINGS];
+    private int stringCount;
+    private long lastClockRead;
+
+    // Starts a new run of records with an empty string table
+    public void reset() {
+        Arrays.fill(strings, 0, stringCount, null);
+        stringCount = 0;
+        lastClockRead = 0;
+    }
+
+    // Throws BufferOverflowException when out is too small; out's position is then undefined
+    public void encode(GameEvent event, ByteBuffer out) {
+        GameEvent.EventType type = event.getType();
+        out.put((byte) type.ordinal());
+        putString(out, event.getSource());
+
+        Object data = event.getData();
+        switch (type) {
+            case CELL_ADDED_TO_FILL -> {
+                GameEvent.CellAddedData d = (GameEvent.CellAddedData) data;
+                putVarint(out, d.row);
+                putVarint(out, d.col);
+                putVarint(out, d.value);
+                putVarint(out, d.currentStrength);
+            }
+            case ATTACK_PERFORMED -> encodeAttack((GameEvent.AttackData) data, out);
+            case OPPONENT_ATTACKED -> {
+                GameEvent.OpponentAttackData d = (GameEvent.OpponentAttackData) data;
+                putVarint(out, d.attackerIndex);
+                putVarint(out, d.damage);
+            }
+            case CHARACTER_DAMAGED -> {
+                StatsTracker.DamageData d = (StatsTracker.DamageData) data;
+                putVarint(out, d.amount);
+                out.put(d.isPlayer ? (byte) 1 : 0);
+            }
+            case EQUIPMENT_ACTIVATED -> {
+                StatsTracker.EquipmentActivationData d = (StatsTracker.EquipmentActivationData) data;
+                out.put((byte) d.id);
+                out.put(d.isWeapon ? (byte) 1 : 0);
+            }
+            default -> {
+                if (data != null) {
+                    throw new IllegalArgumentException("Cannot encode " + type + " data: " + data.getClass().getName());
+                }
+            }
+        }
+    }
+
+    private void encodeAttack(GameEvent.AttackData d, ByteBuffer out) {
+        putVarint(out, d.strength);
+        out.put((byte) d.weaponId);
+        out.put(d.weaponActivated ? (byte) 1 : 0);
+        putString(out, d.weaponDescription);
+        int rings = d.activeRings.size();
+        out.put((byte) rings);
+        for (int i = 0; i < rings; i++) {
+            out.put((byte) d.getActiveRingId(i));
+        }
+        int targets = d.targets.size();
+        out.put((byte) targets);
+        for (int i = 0; i < targets; i++) {
+            GameEvent.TargetDamage t = d.targets.get(i);
+            out.put((byte) t.targetIndex);
+            out.put((byte) ((t.killed ? KILLED : 0) | (t.missed ? MISSED : 0)));
+            putVarint(out, t.damage);
+        }
+    }
+
+    // Reads one record into a new, independent event
+    public GameEvent decode(ByteBuffer in) {
+        int ordinal = in.get() & 0xFF;
+        if (ordinal >= TYPES.length) {
+            throw new IllegalArgumentException("Unknown event type " + ordinal);
+        }
+        GameEvent.EventType type = TYPES[ordinal];
+        String source = getString(in);
+
+        Object data = switch (type) {
+            case CELL_ADDED_TO_FILL -> new GameEvent.CellAddedData(getVarint(in), getVarint(in), getVarint(in),
+                    getVarint(in));
+            case ATTACK_PERFORMED -> decodeAttack(in);
+            case OPPONENT_ATTACKED -> new GameEvent.OpponentAttackData(getVarint(in), getVarint(in));
+            case CHARACTER_DAMAGED -> new StatsTracker.DamageData(getVarint(in), in.get() != 0);
+            case EQUIPMENT_ACTIVATED -> {
+                int id = in.get();
+                boolean isWeapon = in.get() != 0;
+                String name = isWeapon ? EquipmentRegistry.weaponName(id) : EquipmentRegistry.ringName(id);
+                yield new StatsTracker.EquipmentActivationData(id, name, isWeapon);
+            }
+            default -> null;
+        };
+        return new GameEvent(type, source, data);
+    }
+
+    private GameEvent.AttackData decodeAttack(ByteBuffer in) {
+        GameEvent.AttackData d = new GameEvent.AttackData();
+        d.strength = getVarint(in);
+        int weaponId = in.get();
+        boolean activated = in.get() != 0;
+        d.setWeapon(weaponId, EquipmentRegistry.weaponName(weaponId), activated, getString(in));
+        int rings = in.get();
+        for (int i = 0; i < rings; i++) {
+            int id = in.get();
+            d.addActiveRing(id, EquipmentRegistry.ringName(id));
+        }
+        int targets = in.get();
+        for (int i = 0; i < targets; i++) {
+            int targetIndex = in.get();
+            int flags = in.get();
+            d.addTarget(targetIndex, getVarint(in), (flags & KILLED) != 0, (flags & MISSED) != 0);
+        }
+        return d;
+    }
+
+    // Throws BufferOverflowException when out is too small; out's position is then undefined
+    public void encodeInput(GameInput input, ByteBuffer out) {
+        GameInput.Kind kind = input.getKind();
+        out.put((byte) (INPUT_FLAG | kind.ordinal()));
+        if (kind == GameInput.Kind.BEGIN) {
+            putVarlong(out, input.getSeed());
+        }
+        for (int i = 0; i < kind.getArgumentCount(); i++) {
+            putVarint(out, input.getArgument(i));
+        }
+        int reads = input.getClockReadCount();
+        putVarint(out, reads);
+        for (int i = 0; i < reads; i++) {
+            long read = input.getClockRead(i);
+            long delta = read - lastClockRead;
+            putVarlong(out, delta << 1 ^ delta >> 63);
+            lastClockRead = read;
+        }
+    }
+
+    // Whether the next record is a GameInput rather than an event
+    public static boolean isInput(ByteBuffer in) {
+        return (in.get(in.position()) & INPUT_FLAG) != 0;
+    }
+
+    // Reads one input record into a new GameInput
+    public GameInput decodeInput(ByteBuffer in) {
+        int ordinal = in.get() & ~INPUT_FLAG & 0xFF;
+        if (ordinal >= INPUT_KINDS.length) {
+            throw new IllegalArgumentException("Unknown input kind " + ordinal);
+        }
+        GameInput.Kind kind = INPUT_KINDS[ordinal];
+        long seed = kind == GameInput.Kind.BEGIN ? getVarlong(in) : 0;
+        int[] arguments = new int[3];
+        for (int i = 0; i < kind.getArgumentCount(); i++) {
+            arguments[i] = getVarint(in);
+        }
+        GameInput input = new GameInput().set(kind, seed, arguments[0], arguments[1], arguments[2]);
+        int reads = getVarint(in);
+        for (int i = 0; i < reads; i++) {
+            long zigzag = getVarlong(in);
+            lastClockRead += zigzag >>> 1 ^ -(zigzag & 1);
+            input.addClockRead(lastClockRead);
+        }
+        return input;
+    }
+
+    // Index + 1 of a known string, or 0 followed by the UTF-8 text of a new one
+    private void putString(ByteBuffer out, String s) {
+        for (int i = 0; i < stringCount; i++) {
+            if (strings[i] == s) {
+                putVarint(out, i + 1);
+                return;
+            }
+        }
+        // Equal strings from different places are only stored once per run as well
+        for (int i = 0; i < stringCount; i++) {
+            if (strings[i].equals(s)) {
+                putVarint(out, i + 1);
+                return;
+            }
+        }
+        if (stringCount == MAX_STRINGS) {
+            throw new IllegalStateException("String table full; reset the codec more often");
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        putVarint(out, 0);
+        putVarint(out, bytes.length);
+        out.put(bytes);
+        strings[stringCount++] = s;
+    }
+
+    private String getString(ByteBuffer in) {
+        int ref = getVarint(in);
+        if (ref > 0) {
+            if (ref > stringCount) {
+                throw new IllegalArgumentException("Unknown string " + ref);
+            }
+            return strings[ref - 1];
+        }
+        if (stringCount == MAX_STRINGS) {
+            throw new IllegalArgumentException("String table overflow");
+        }
+        byte[] bytes = new byte[getVarint(in)];
+        in.get(bytes);
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        strings[stringCount++] = s;
+        return s;
+    }
+
+    // Unsigned LEB128, shared with EngineSnapshot
+    static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static void putVarlong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long getVarlong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
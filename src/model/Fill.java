@@ -1,39 +1,80 @@
 package model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Tracks the current fill state, including strength and cells added.
+ * Cells and values are kept in primitive arrays that are reused across fills, and
+ * whether the values are strictly ascending or descending is updated as each cell
+ * is added, so the weapons that ask about ordering get an O(1) answer.
  */
 public class Fill {
+    private static final int INITIAL_CAPACITY = 8; // outer cells of the 3x3 board
+
     private int strength;
-    private List<int[]> cellsAdded;
-    private List<Integer> valuesAdded;
-    private long startTime;
+    private int[] rowsAdded;
+    private int[] colsAdded;
+    private int[] valuesAdded;
+    private final GameClock clock;
+    private long startTime; // nanos, from the clock
     private int cellCount;
+    private boolean ascending;
+    private boolean descending;
+    private final List<Integer> valuesView;
 
     public Fill() {
+        this(GameClock.SYSTEM);
+    }
+
+    public Fill(GameClock clock) {
+        this.clock = clock;
         this.strength = 0;
-        this.cellsAdded = new ArrayList<>();
-        this.valuesAdded = new ArrayList<>();
-        this.startTime = System.currentTimeMillis();
+        this.rowsAdded = new int[INITIAL_CAPACITY];
+        this.colsAdded = new int[INITIAL_CAPACITY];
+        this.valuesAdded = new int[INITIAL_CAPACITY];
+        this.startTime = clock.nanoTime();
         this.cellCount = 0;
+        this.ascending = true;
+        this.descending = true;
+        this.valuesView = new ValuesView();
     }
 
     public void addCell(int row, int col, int value) {
-        cellsAdded.add(new int[]{row, col});
-        valuesAdded.add(value);
+        if (cellCount == valuesAdded.length) {
+            grow();
+        }
+        if (cellCount > 0) {
+            int previous = valuesAdded[cellCount - 1];
+            ascending &= value > previous;
+            descending &= value < previous;
+        }
+        rowsAdded[cellCount] = row;
+        colsAdded[cellCount] = col;
+        valuesAdded[cellCount] = value;
         strength += value;
         cellCount++;
     }
 
+    private void grow() {
+        int capacity = valuesAdded.length * 2;
+        rowsAdded = Arrays.copyOf(rowsAdded, capacity);
+        colsAdded = Arrays.copyOf(colsAdded, capacity);
+        valuesAdded = Arrays.copyOf(valuesAdded, capacity);
+    }
+
     public void reset() {
+        restart(clock.nanoTime());
+    }
+
+    // Empties the fill as if it had started at the given clock reading
+    void restart(long startTime) {
+        this.startTime = startTime;
         strength = 0;
-        cellsAdded.clear();
-        valuesAdded.clear();
-        startTime = System.currentTimeMillis();
         cellCount = 0;
+        ascending = true;
+        descending = true;
     }
 
     public int getStrength() {
@@ -44,50 +85,79 @@ public class Fill {
         return cellCount;
     }
 
+    // Clock reading at the start of the fill
+    long getStartTime() {
+        return startTime;
+    }
+
+    // Milliseconds since the fill started
     public long getElapsedTime() {
-        return System.currentTimeMillis() - startTime;
+        return (clock.nanoTime() - startTime) / 1_000_000L;
     }
 
+    // Read-only view of the values added so far; it follows later changes to the fill
     public List<Integer> getValuesAdded() {
-        return new ArrayList<>(valuesAdded);
+        return valuesView;
+    }
+
+    public int getValueAt(int index) {
+        if (index < 0 || index >= cellCount) {
+            throw new IndexOutOfBoundsException("No value at " + index + " in a fill of " + cellCount);
+        }
+        return valuesAdded[index];
+    }
+
+    int getRowAt(int index) {
+        return rowsAdded[index];
+    }
+
+    int getColAt(int index) {
+        return colsAdded[index];
     }
 
+    // Returns {row, col} of the last cell added, or null for an empty fill.
+    // Prefer getLastRow/getLastCol on hot paths, they do not allocate.
     public int[] getLastCell() {
-        if (cellsAdded.isEmpty()) {
+        if (cellCount == 0) {
             return null;
         }
-        return cellsAdded.get(cellsAdded.size() - 1);
+        return new int[] { getLastRow(), getLastCol() };
     }
 
-    public boolean isAscending() {
-        if (valuesAdded.size() < 2) {
-            return true;
-        }
-        for (int i = 1; i < valuesAdded.size(); i++) {
-            if (valuesAdded.get(i) <= valuesAdded.get(i - 1)) {
-                return false;
-            }
-        }
-        return true;
+    public int getLastRow() {
+        return rowsAdded[cellCount - 1];
     }
 
-    public boolean isDescending() {
-        if (valuesAdded.size() < 2) {
-            return true;
-        }
-        for (int i = 1; i < valuesAdded.size(); i++) {
-            if (valuesAdded.get(i) >= valuesAdded.get(i - 1)) {
-                return false;
-            }
-        }
-        return true;
+    public int getLastCol() {
+        return colsAdded[cellCount - 1];
+    }
+
+    public boolean isEmpty() {
+        return cellCount == 0;
+    }
 
+    public boolean isAscending() {
+        return ascending;
+    }
 
+    public boolean isDescending() {
+        return descending;
     }
 
     @Override
     public String toString() {
         return "Fill(" + strength + ")";
     }
-}
 
+    private class ValuesView extends AbstractList<Integer> {
+        @Override
+        public Integer get(int index) {
+            return getValueAt(index);
+        }
+
+        @Override
+        public int size() {
+            return cellCount;
+        }
+    }
+}
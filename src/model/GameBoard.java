@@ -1,30 +1,51 @@
 package model;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
- * Represents the 3x3 game board.
- * The center cell is at position [1][1].
- * Outer cells are the 8 cells around the edge.
+ * Represents the game board, 3x3 by default.
+ * The center cell is at position [size / 2][size / 2] ([1][1] on the 3x3 board).
+ * Outer cells are all the other cells.
+ * Fill completion uses a running count of cells in the fill, and reset only touches
+ * the cells that were added, so neither scans the whole grid.
  */
-public class GameBoard {
-    private static final int BOARD_SIZE = 3; // 3x3 board size (indices: 0-2)
+public final class GameBoard implements Board {
     private static final int DEFAULT_MIN = 0;
     private static final int DEFAULT_MAX = 15;
+    private final int boardSize;
     private final Cell[][] board;
     private int minValue;
     private int maxValue;
-    private final Random random;
+    private final RandomGenerator random;
+    private final CellValueIndex valueIndex; // value -> outer cells holding it
+    private final int[] filledCells;         // indices of cells in the current fill
+    private int fillCount;
+    private int firstUnfilledCursor;         // every outer cell before this index is in the fill
     private Cell lastAddedCell;
 
     public GameBoard() {
+        this(new GameRandom());
+    }
+
+    // Board drawing its values from a shared (possibly seeded) random source
+    public GameBoard(RandomGenerator random) {
+        this(random, DEFAULT_SIZE);
+    }
+
+    public GameBoard(RandomGenerator random, int boardSize) {
+        if (boardSize < 2) {
+            throw new IllegalArgumentException("Board size must be at least 2");
+        }
         // generates 2D array of cells (board) that can hold integer values between 0-15
-        this.board = new Cell[BOARD_SIZE][BOARD_SIZE];
+        this.boardSize = boardSize;
+        this.board = new Cell[boardSize][boardSize];
         this.minValue = DEFAULT_MIN;
         this.maxValue = DEFAULT_MAX;
-        this.random = new Random();
+        this.random = random;
+        this.valueIndex = CellValueIndex.create(boardSize * boardSize, DEFAULT_MAX);
+        this.filledCells = new int[boardSize * boardSize];
+        this.fillCount = 0;
+        this.firstUnfilledCursor = 0;
         initializeCells(); // initialize board with random values
     }
 
@@ -32,89 +53,126 @@ public class GameBoard {
     // max
     // min and max are stored in GameBoard but passed to the cell to create itself
     private void initializeCells() {
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
                 int initialValue = random.nextInt(maxValue - minValue + 1) + minValue;
-                board[row][col] = new Cell(row, col, initialValue);
+                board[row][col] = new Cell(row, col, initialValue, boardSize);
+                if (isOuterCell(row, col)) {
+                    valueIndex.add(getIndex(row, col), initialValue);
+                }
             }
         }
     }
 
+    @Override
     public void regenerateCellValue(int row, int col) {
         int newValue = random.nextInt(maxValue - minValue + 1) + minValue;
-        board[row][col].setValue(newValue);
+        setCellValue(row, col, newValue);
     }
 
     public Cell getCellByRowCol(int row, int col) {
         return board[row][col];
     }
 
-    public boolean isCellRowColValid(int row, int col) {
-        return (row >= 0 && row < BOARD_SIZE) && (col >= 0 && col < BOARD_SIZE);
+    public Cell getCenter() {
+        return board[getCenterRow()][getCenterCol()];
     }
 
-    public Cell getCenter() {
-        return board[1][1];
+    @Override
+    public int getCenterValue() {
+        return getCenter().getValue();
     }
 
     public Cell getCell(int row, int col) {
         return getCellByRowCol(row, col);
     }
 
+    @Override
     public boolean isInFill(int row, int col) {
         return board[row][col].isInFill(); // ask the cell if it is in the fill
     }
 
-    public boolean isOuterCell(int row, int col) {
-        return !(row == 1 && col == 1);
-    }
-
+    @Override
     public void setCellValue(int row, int col, int value) {
+        if (isOuterCell(row, col)) {
+            valueIndex.move(getIndex(row, col), board[row][col].getValue(), value);
+        }
         board[row][col].setValue(value);
     }
 
+    @Override
     public int getCellValue(int row, int col) {
         return board[row][col].getValue();
     }
 
+    @Override
     public void addToFill(int row, int col) {
-        if (isOuterCell(row, col)) {
-            lastAddedCell = board[row][col];
-            board[row][col].addToFill(); // cell marks itself as being part of the fill
+        if (!isOuterCell(row, col)) {
+            return;
+        }
+        Cell cell = board[row][col];
+        lastAddedCell = cell;
+        if (!cell.isInFill()) {
+            cell.addToFill(); // cell marks itself as being part of the fill
+            int index = getIndex(row, col);
+            valueIndex.markInFill(index, cell.getValue());
+            filledCells[fillCount++] = index;
         }
     }
 
+    @Override
     public void resetFill() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                board[i][j].resetFillStatus();
-            }
+        for (int i = 0; i < fillCount; i++) {
+            int index = filledCells[i];
+            board[getRow(index)][getCol(index)].resetFillStatus();
         }
+        fillCount = 0;
+        firstUnfilledCursor = 0;
+        valueIndex.clearFill();
     }
 
+    @Override
     public boolean isFillComplete() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (isOuterCell(i, j) && !board[i][j].isInFill()) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return fillCount == getOuterCellCount();
     }
 
-    public List<int[]> findMatchingCells(int sum) {
-        List<int[]> matches = new ArrayList<>();
-        int center = getCenter().getValue();
+    @Override
+    public int countMatches(int sum) {
+        return valueIndex.count(sum - getCenterValue());
+    }
 
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (isOuterCell(i, j) && board[i][j].getValue() + center == sum) {
-                    matches.add(new int[] { i, j });
-                }
+    @Override
+    public int getMatch(int sum, int n) {
+        return valueIndex.get(sum - getCenterValue(), n);
+    }
+
+    // Returns the outer cells whose value plus the center equals sum, one bit per cell.
+    // Bit (row * size + col) is set for a match, so the 3x3 board uses 9 bits.
+    @Override
+    public int findMatchingMask(int sum) {
+        return valueIndex.mask(sum - getCenterValue());
+    }
+
+    // Returns the index of a matching outer cell not yet in the fill, or -1 if none.
+    // On boards of up to 32 cells this is the first such cell in row-major order.
+    @Override
+    public int findFirstMatchNotInFill(int sum) {
+        return valueIndex.firstNotInFill(sum - getCenterValue());
+    }
+
+    // The fill only grows until it is reset, so the cursor never has to move backwards
+    @Override
+    public int findFirstCellNotInFill() {
+        int cellCount = boardSize * boardSize;
+        while (firstUnfilledCursor < cellCount) {
+            int row = getRow(firstUnfilledCursor);
+            int col = getCol(firstUnfilledCursor);
+            if (isOuterCell(row, col) && !board[row][col].isInFill()) {
+                return firstUnfilledCursor;
             }
+            firstUnfilledCursor++;
         }
-        return matches;
+        return -1;
     }
 
     // Returns last cell added to fill. Cannot be null, no null check required, only
@@ -123,15 +181,21 @@ public class GameBoard {
         return lastAddedCell;
     }
 
+    @Override
     public void setValueRange(int min, int max) {
+        if (min < 0 || max < min || max - min == Integer.MAX_VALUE) { // the range size must fit an int
+            throw new IllegalArgumentException("Invalid value range: " + min + " to " + max);
+        }
         this.minValue = min;
         this.maxValue = max;
     }
 
+    @Override
     public int getMinValue() {
         return minValue;
     }
 
+    @Override
     public int getMaxValue() {
         return maxValue;
     }
@@ -140,7 +204,13 @@ public class GameBoard {
         return board;
     }
 
+    @Override
     public int getBoardSize() {
-        return BOARD_SIZE;
+        return boardSize;
+    }
+
+    @Override
+    public int getIndex(int row, int col) {
+        return row * boardSize + col;
     }
 }
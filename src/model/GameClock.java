@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * Time source for fill timing. The default reads the monotonic System.nanoTime;
+ * simulations use a SimulatedClock so time-based weapons behave the same on every run
+ * and matches are not slowed down by real waiting.
+ */
+public interface GameClock {
+    GameClock SYSTEM = System::nanoTime;
+
+    long nanoTime();
+}
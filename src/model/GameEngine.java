@@ -4,17 +4,34 @@ import model.ring.*;
 import model.weapon.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Random;
-
-public class GameEngine {
-    private GameBoard board;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+
+public final class GameEngine {
+    private Board board;
+    private final Board.Factory boardFactory;
+    private final GameClock clock;
+    private final GameClock fillClock = this::readClock; // the clock as fills see it, for recording
     private Player player;
     private Opponent[] opponents;
     private Fill currentFill;
-    private StatsTracker stats;
-    private List<GameObserver> observers;
-    private Random random;
+    private final StatsTracker stats;
+    private final EnumMap<GameEvent.EventType, List<GameObserver>> observers; // by subscribed type
+    private final long seed;
+    private final GameRandom random;
+    // Event reuse: one flyweight event per type and one payload of each kind (see GameEvent)
+    private boolean reuseEvents;
+    private final GameEvent[] reusableEvents;
+    private final GameEvent.CellAddedData cellAddedData = new GameEvent.CellAddedData(0, 0, 0, 0);
+    private final GameEvent.OpponentAttackData opponentAttackData = new GameEvent.OpponentAttackData(0, 0);
+    private final GameEvent.AttackData attackData = new GameEvent.AttackData();
+    private final StatsTracker.DamageData damageData = new StatsTracker.DamageData(0, false);
+    private final StatsTracker.EquipmentActivationData activationData =
+            new StatsTracker.EquipmentActivationData(EquipmentRegistry.NO_RING, "", false);
     private int turnCounter; // for periodic opponent attacks
     private int nextOpponentAttack;
     private boolean cheatLowHealth;
@@ -25,15 +42,49 @@ public class GameEngine {
     // Store equipped weapon and rings to persist across matches
     private Integer equippedWeaponNumber = null;
     private int[] equippedRingNumbers = null;
+    // Input recording (see setInputRecorder)
+    private InputRecorder inputRecorder;
+    private final GameInput input = new GameInput();
+    private boolean recordingInput; // between beginInput and endInput
+    private boolean inputTaken;
 
     public GameEngine() {
-        this.board = new GameBoard();
-        this.currentFill = new Fill();
-        this.observers = new ArrayList<>();
-        this.stats = new StatsTracker();
+        this(GameRandom.newSeed(), GameBoard::new, GameClock.SYSTEM);
+    }
+
+    // Seeded engine: the same seed and the same moves give the same boards and opponent attacks
+    public GameEngine(long seed) {
+        this(seed, GameBoard::new, GameClock.SYSTEM);
+    }
+
+    // Seeded engine playing on boards from the given factory (e.g. BitBoard::new)
+    public GameEngine(long seed, Board.Factory boardFactory) {
+        this(seed, boardFactory, GameClock.SYSTEM);
+    }
+
+    // Fully deterministic engine when given a SimulatedClock
+    public GameEngine(long seed, Board.Factory boardFactory, GameClock clock) {
+        this(seed, boardFactory, clock, new StatsTracker());
+    }
+
+    // Engine recording into the given tracker, which may be shared with other engines
+    // (a ConcurrentStatsTracker when they run on different threads)
+    public GameEngine(long seed, Board.Factory boardFactory, GameClock clock, StatsTracker stats) {
+        this.seed = seed;
+        this.random = new GameRandom(seed);
+        this.boardFactory = boardFactory;
+        this.clock = clock;
+        this.board = boardFactory.create(random);
+        this.currentFill = new Fill(fillClock);
+        this.observers = new EnumMap<>(GameEvent.EventType.class);
+        this.reusableEvents = new GameEvent[GameEvent.EventType.values().length];
+        for (GameEvent.EventType type : GameEvent.EventType.values()) {
+            observers.put(type, new ArrayList<>());
+            reusableEvents[type.ordinal()] = GameEvent.reusable(type);
+        }
+        this.stats = stats;
         // Register stats as observer so it can track game events
-        registerObserver(stats);
-        this.random = new Random();
+        registerObserver(stats, StatsTracker.OBSERVED_EVENTS);
         this.turnCounter = 0;
 
         this.cheatLowHealth = false;
@@ -42,21 +93,27 @@ public class GameEngine {
         this.baseOpponentHealth = 500;
         this.baseOpponentDamage = 50;
 
-        startNewMatch();
+        newMatch();
     }
 
     public void startNewMatch() {
-        this.board = new GameBoard();
-        this.player = new Player(basePlayerHealth); // create/reset player
+        beginInput();
+        newMatch();
+        endInput(GameInput.Kind.NEW_MATCH, 0, 0, 0);
+    }
+
+    private void newMatch() {
+        this.board = boardFactory.create(random);
+        this.player = new Player(basePlayerHealth, random); // create/reset player
 
         // Re-equip weapon and rings if they were set via cheats
         if (equippedWeaponNumber != null) {
-            player.setWeapon(createWeapon(equippedWeaponNumber));
+            player.setWeapon(EquipmentRegistry.getWeapon(equippedWeaponNumber));
         }
         if (equippedRingNumbers != null) {
-            player.setRings(createRing(equippedRingNumbers[0]),
-                    createRing(equippedRingNumbers[1]),
-                    createRing(equippedRingNumbers[2]));
+            player.setRings(EquipmentRegistry.getRing(equippedRingNumbers[0]),
+                    EquipmentRegistry.getRing(equippedRingNumbers[1]),
+                    EquipmentRegistry.getRing(equippedRingNumbers[2]));
         }
 
         // Reset cheat codes that persist only until end of match
@@ -71,59 +128,277 @@ public class GameEngine {
             opponents[i] = new Opponent(opponentHealth);
         }
 
-        this.currentFill = new Fill();
+        this.currentFill = new Fill(fillClock);
         this.turnCounter = 0;
         this.nextOpponentAttack = random.nextInt(3) + 3; // 3-5 turns
 
-        notifyObservers(new GameEvent(GameEvent.EventType.FILL_STARTED, "GameEngine", null));
+        notifySimple(GameEvent.EventType.FILL_STARTED, "GameEngine");
     }
 
+    // Subscribes the observer to every event type
     public void registerObserver(GameObserver observer) {
-        observers.add(observer);
+        registerObserver(observer, EnumSet.allOf(GameEvent.EventType.class));
+    }
+
+    // Subscribes the observer to the given event types only. Events of a type nobody
+    // subscribed to are not even created.
+    public void registerObserver(GameObserver observer, Set<GameEvent.EventType> types) {
+        for (GameEvent.EventType type : types) {
+            observers.get(type).add(observer);
+        }
+    }
+
+    private boolean hasObservers(GameEvent.EventType type) {
+        return !observers.get(type).isEmpty();
     }
 
     private void notifyObservers(GameEvent event) {
-        for (GameObserver observer : observers) {
-            observer.notify(event);
+        List<GameObserver> subscribed = observers.get(event.getType());
+        for (int i = 0; i < subscribed.size(); i++) {
+            subscribed.get(i).notify(event);
+        }
+    }
+
+    // Events without data, skipped entirely when nobody listens
+    private void notifySimple(GameEvent.EventType type, String source) {
+        if (hasObservers(type)) {
+            notifyObservers(event(type, source, null));
+        }
+    }
+
+    // With reuse on, events and payloads are overwritten flyweights valid only during the
+    // observer callback, and steady-state turns allocate nothing. Off by default; observers
+    // that keep events (e.g. AsyncEventBus) copy reused ones.
+    public void setReuseEvents(boolean reuseEvents) {
+        this.reuseEvents = reuseEvents;
+    }
+
+    public boolean isReuseEvents() {
+        return reuseEvents;
+    }
+
+    private GameEvent event(GameEvent.EventType type, String source, Object data) {
+        if (reuseEvents) {
+            return reusableEvents[type.ordinal()].set(source, data);
         }
+        return new GameEvent(type, source, data);
+    }
+
+    private StatsTracker.DamageData damagePayload(int amount, boolean isPlayer) {
+        return reuseEvents ? damageData.set(amount, isPlayer) : new StatsTracker.DamageData(amount, isPlayer);
+    }
+
+    private StatsTracker.EquipmentActivationData activationPayload(int id, String name, boolean isWeapon) {
+        return reuseEvents ? activationData.set(id, name, isWeapon)
+                : new StatsTracker.EquipmentActivationData(id, name, isWeapon);
+    }
+
+    // Records every input from now on: the engine's inputs are the moves, cheats, new
+    // matches and prize draws made through its methods, and with the seed they decide the
+    // whole game (see Replayer). Only a fresh engine can be recorded, and its inputs must
+    // then come through these methods, not by changing the board, player or random
+    // source directly, and not from observer callbacks, where they would land in the
+    // middle of another input. Starts with a BEGIN input describing the engine.
+    public void setInputRecorder(InputRecorder recorder) {
+        if (inputTaken) {
+            throw new IllegalStateException("Inputs can only be recorded from the start of a game");
+        }
+        int boardKind = boardKind();
+        this.inputRecorder = recorder;
+        input.clearClockReads();
+        input.addClockRead(currentFill.getStartTime());
+        recorder.record(input.set(GameInput.Kind.BEGIN, seed, boardKind, board.getBoardSize(), 0));
+        input.clearClockReads();
+    }
+
+    // GameInput.BIT_BOARD or GAME_BOARD; other boards cannot be rebuilt from a description
+    private int boardKind() {
+        if (board instanceof BitBoard) {
+            return GameInput.BIT_BOARD;
+        } else if (board instanceof GameBoard) {
+            return GameInput.GAME_BOARD;
+        }
+        throw new IllegalArgumentException("Cannot describe a " + board.getClass().getName());
+    }
+
+    // Copies the whole game state into the snapshot and returns it. Allocates nothing
+    // when the snapshot was last used for a board of the same size.
+    public EngineSnapshot snapshot(EngineSnapshot into) {
+        int size = board.getBoardSize();
+        into.prepare(size, opponents.length);
+        into.boardKind = boardKind();
+        into.seed = seed;
+        into.randomState = random.getState();
+        into.minValue = board.getMinValue();
+        into.maxValue = board.getMaxValue();
+        int[] values = into.cellValues;
+        for (int row = 0, index = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                values[index++] = board.getCellValue(row, col);
+            }
+        }
+        into.fillAgeNanos = clock.nanoTime() - currentFill.getStartTime();
+        for (int i = 0; i < currentFill.getCellCount(); i++) {
+            into.addFillCell(currentFill.getRowAt(i) * size + currentFill.getColAt(i), currentFill.getValueAt(i));
+        }
+        into.playerHealth = player.getHealth();
+        into.weaponId = player.getWeapon().getId();
+        player.copyRingIds(into.ringIds);
+        for (int i = 0; i < opponents.length; i++) {
+            into.opponentHealths[i] = opponents[i].getHealth();
+        }
+        into.turnCounter = turnCounter;
+        into.nextOpponentAttack = nextOpponentAttack;
+        into.cheatLowHealth = cheatLowHealth;
+        into.cheatHighHealth = cheatHighHealth;
+        into.equippedWeaponNumber = equippedWeaponNumber != null ? equippedWeaponNumber : -1;
+        into.hasEquippedRings = equippedRingNumbers != null;
+        if (equippedRingNumbers != null) {
+            System.arraycopy(equippedRingNumbers, 0, into.equippedRingNumbers, 0, 3);
+        }
+        return into;
+    }
+
+    public EngineSnapshot snapshot() {
+        return snapshot(new EngineSnapshot());
+    }
+
+    // Puts the game back in the snapshot's state; the board must have the same size, but
+    // may be of the other kind. Observers, stats and settings stay as they are, and no
+    // events are sent. A restored game no longer follows from its seed and inputs, so
+    // an engine that records inputs cannot be restored, and a restored one cannot start
+    // recording. Allocates nothing unless the equipment kept across matches changes.
+    public void restore(EngineSnapshot snapshot) {
+        if (inputRecorder != null) {
+            throw new IllegalStateException("Cannot restore a game whose inputs are recorded");
+        }
+        int size = board.getBoardSize();
+        if (snapshot.boardSize != size || snapshot.opponentHealths.length != opponents.length) {
+            throw new IllegalArgumentException("Snapshot of a " + snapshot.boardSize + "x" + snapshot.boardSize
+                    + " game with " + snapshot.opponentHealths.length + " opponents does not fit this one");
+        }
+        inputTaken = true;
+        random.setState(snapshot.randomState);
+
+        board.resetFill();
+        board.setValueRange(snapshot.minValue, snapshot.maxValue);
+        int[] values = snapshot.cellValues;
+        for (int row = 0, index = 0; row < size; row++) {
+            for (int col = 0; col < size; col++, index++) {
+                if (board.getCellValue(row, col) != values[index]) { // a branch changes only a few cells
+                    board.setCellValue(row, col, values[index]);
+                }
+            }
+        }
+        currentFill.restart(clock.nanoTime() - snapshot.fillAgeNanos);
+        for (int i = 0; i < snapshot.fillCellCount; i++) {
+            int row = snapshot.fillCells[i] / size;
+            int col = snapshot.fillCells[i] % size;
+            currentFill.addCell(row, col, snapshot.fillValues[i]);
+            board.addToFill(row, col);
+        }
+
+        player.setHealth(snapshot.playerHealth);
+        if (player.getWeapon().getId() != snapshot.weaponId) {
+            player.setWeapon(EquipmentRegistry.getWeapon(snapshot.weaponId));
+        }
+        if (!player.hasRingIds(snapshot.ringIds)) { // keeps the ring table when the rings are the same
+            setRings(snapshot.ringIds[0], snapshot.ringIds[1], snapshot.ringIds[2]);
+        }
+        for (int i = 0; i < opponents.length; i++) {
+            opponents[i].setHealth(snapshot.opponentHealths[i]);
+        }
+
+        turnCounter = snapshot.turnCounter;
+        nextOpponentAttack = snapshot.nextOpponentAttack;
+        cheatLowHealth = snapshot.cheatLowHealth;
+        cheatHighHealth = snapshot.cheatHighHealth;
+        equippedWeaponNumber = snapshot.equippedWeaponNumber >= 0 ? snapshot.equippedWeaponNumber : null;
+        if (!snapshot.hasEquippedRings) {
+            equippedRingNumbers = null;
+        } else if (!Arrays.equals(equippedRingNumbers, snapshot.equippedRingNumbers)) {
+            equippedRingNumbers = snapshot.equippedRingNumbers.clone();
+        }
+    }
+
+    // A new engine in the snapshot's state, on the board kind it was taken from
+    public static GameEngine fromSnapshot(EngineSnapshot snapshot, GameClock clock) {
+        int size = snapshot.boardSize;
+        Board.Factory boardFactory = switch (snapshot.boardKind) {
+            case GameInput.GAME_BOARD -> random -> new GameBoard(random, size);
+            case GameInput.BIT_BOARD -> random -> new BitBoard(random, size);
+            default -> throw new IllegalArgumentException("Unknown board kind: " + snapshot.boardKind);
+        };
+        GameEngine engine = new GameEngine(snapshot.seed, boardFactory, clock);
+        engine.restore(snapshot);
+        return engine;
+    }
+
+    // An independent engine in this engine's current state, playing on the same kind of
+    // board, with its own stats and no observers. A SimulatedClock is copied at its
+    // current time so the fork's clock can move on its own; other clocks are shared.
+    // For many short branches, restoring one scratch engine from a snapshot is cheaper.
+    public GameEngine fork() {
+        GameClock forkClock = clock instanceof SimulatedClock ? new SimulatedClock(clock.nanoTime()) : clock;
+        GameEngine fork = new GameEngine(seed, boardFactory, forkClock);
+        fork.setReuseEvents(reuseEvents);
+        fork.restore(snapshot());
+        return fork;
+    }
+
+    private void beginInput() {
+        inputTaken = true;
+        recordingInput = inputRecorder != null;
+        input.clearClockReads();
+    }
+
+    private void endInput(GameInput.Kind kind, int a, int b, int c) {
+        if (recordingInput) {
+            recordingInput = false;
+            inputRecorder.record(input.set(kind, 0, a, b, c));
+        }
+    }
+
+    // Clock reads made while handling an input are part of that input
+    private long readClock() {
+        long now = clock.nanoTime();
+        if (recordingInput) {
+            input.addClockRead(now);
+        }
+        return now;
     }
 
     public boolean processSum(int sum) {
+        beginInput();
+        boolean moved = playSum(sum);
+        endInput(GameInput.Kind.SUM, sum, 0, 0);
+        return moved;
+    }
+
+    private boolean playSum(int sum) {
         turnCounter++;
 
-        List<int[]> matches = board.findMatchingCells(sum);
+        int matches = board.countMatches(sum);
 
-        if (matches.isEmpty()) {
+        if (matches == 0) {
             // Failed move - opponent attacks
             handleFailedMove();
             return false;
         }
 
         // Find a matching cell not yet in fill
-        int[] chosenCell = null;
-        for (int[] cell : matches) {
-            if (!board.isInFill(cell[0], cell[1])) {
-                chosenCell = cell;
-                break;
-            }
-        }
+        int chosenCell = board.findFirstMatchNotInFill(sum);
 
         // If all matches are in fill, randomly choose one
-        if (chosenCell == null && !matches.isEmpty()) {
-            chosenCell = matches.get(random.nextInt(matches.size()));
-        }
-
-        if (chosenCell != null) {
-            handleSuccessfulMove(chosenCell);
-            return true;
+        if (chosenCell < 0) {
+            chosenCell = board.getMatch(sum, random.nextInt(matches));
         }
 
-        return false;
+        handleSuccessfulMove(board.getRow(chosenCell), board.getCol(chosenCell));
+        return true;
     }
 
-    private void handleSuccessfulMove(int[] cell) {
-        int row = cell[0];
-        int col = cell[1];
+    private void handleSuccessfulMove(int row, int col) {
         int value = board.getCellValue(row, col);
 
         // Check if fill was already complete before this move
@@ -133,22 +408,26 @@ public class GameEngine {
         currentFill.addCell(row, col, value); // Adds OLD value to strength
 
         // Update center - replace center value with the selected cell's OLD value
-        board.setCellValue(1, 1, value);
+        board.setCenterValue(value);
 
         // Replace cell with NEW random value (for next turn)
         board.regenerateCellValue(row, col);
 
-        notifyObservers(new GameEvent(GameEvent.EventType.CELL_ADDED_TO_FILL, "GameEngine",
-                new GameEvent.CellAddedData(row, col, value, currentFill.getStrength())));
+        if (hasObservers(GameEvent.EventType.CELL_ADDED_TO_FILL)) {
+            int strength = currentFill.getStrength();
+            notifyObservers(event(GameEvent.EventType.CELL_ADDED_TO_FILL, "GameEngine", reuseEvents
+                    ? cellAddedData.set(row, col, value, strength)
+                    : new GameEvent.CellAddedData(row, col, value, strength)));
+        }
 
         if (!wasComplete && board.isFillComplete()) {
             // Fire FILL_COMPLETED event before attack (StatsTracker needs this)
-            notifyObservers(new GameEvent(GameEvent.EventType.FILL_COMPLETED, "GameEngine", null));
+            notifySimple(GameEvent.EventType.FILL_COMPLETED, "GameEngine");
             performPlayerAttack();
 
             board.resetFill();
             currentFill.reset();
-            notifyObservers(new GameEvent(GameEvent.EventType.FILL_STARTED, "GameEngine", null));
+            notifySimple(GameEvent.EventType.FILL_STARTED, "GameEngine");
         }
 
         // Random opponent attack every 3-5 turns
@@ -160,129 +439,144 @@ public class GameEngine {
 
     private void handleFailedMove() {
         performOpponentAttack();
-        notifyObservers(new GameEvent(GameEvent.EventType.TURN_FAILED, "GameEngine", null));
+        notifySimple(GameEvent.EventType.TURN_FAILED, "GameEngine");
     }
 
     private void performPlayerAttack() {
         // Player handles all attack logic and returns the data
-        GameEvent.AttackData attackData = player.attack(opponents, currentFill);
+        GameEvent.AttackData attackData = reuseEvents ? this.attackData : new GameEvent.AttackData();
+        player.attack(opponents, currentFill, board.getBoardSize(), attackData);
 
         // Fire EQUIPMENT_ACTIVATED events for rings that activated
-        for (String ringName : attackData.activeRings) {
-            notifyObservers(new GameEvent(GameEvent.EventType.EQUIPMENT_ACTIVATED, "Player",
-                    new StatsTracker.EquipmentActivationData(ringName, false)));
-        }
+        if (hasObservers(GameEvent.EventType.EQUIPMENT_ACTIVATED)) {
+            for (int i = 0; i < attackData.activeRings.size(); i++) {
+                notifyObservers(event(GameEvent.EventType.EQUIPMENT_ACTIVATED, "Player",
+                        activationPayload(attackData.getActiveRingId(i), attackData.activeRings.get(i), false)));
+            }
 
-        if (attackData.weaponActivated) {
-            notifyObservers(new GameEvent(GameEvent.EventType.EQUIPMENT_ACTIVATED, "Player",
-                    new StatsTracker.EquipmentActivationData(attackData.weaponName, true)));
+            if (attackData.weaponActivated) {
+                notifyObservers(event(GameEvent.EventType.EQUIPMENT_ACTIVATED, "Player",
+                        activationPayload(attackData.weaponId, attackData.weaponName, true)));
+            }
         }
 
         // Fire CHARACTER_DAMAGED events for each target that took damage
-        for (GameEvent.TargetDamage target : attackData.targets) {
-            if (target.damage > 0 && !target.missed) {
-                notifyObservers(new GameEvent(GameEvent.EventType.CHARACTER_DAMAGED, "Player",
-                        new StatsTracker.DamageData(target.damage, false)));
+        if (hasObservers(GameEvent.EventType.CHARACTER_DAMAGED)) {
+            for (int i = 0; i < attackData.targets.size(); i++) {
+                GameEvent.TargetDamage target = attackData.targets.get(i);
+                if (target.damage > 0 && !target.missed) {
+                    notifyObservers(event(GameEvent.EventType.CHARACTER_DAMAGED, "Player",
+                            damagePayload(target.damage, false)));
+                }
             }
         }
 
         // Notify observers
-        notifyObservers(new GameEvent(GameEvent.EventType.ATTACK_PERFORMED, "Player", attackData));
+        if (hasObservers(GameEvent.EventType.ATTACK_PERFORMED)) {
+            notifyObservers(event(GameEvent.EventType.ATTACK_PERFORMED, "Player", attackData));
+        }
 
         // Check if match won
         if (allOpponentsDefeated()) {
-            notifyObservers(new GameEvent(GameEvent.EventType.MATCH_WON, "GameEngine", null));
+            notifySimple(GameEvent.EventType.MATCH_WON, "GameEngine");
         }
     }
 
-    public Weapon getRandomWeapon() {
-        int weaponNum = random.nextInt(6) + 1;
-        switch (weaponNum) {
-            case 1:
-                return new LightningWand();
-            case 2:
-                return new FireStaff();
-            case 3:
-                return new FrostBow();
-            case 4:
-                return new StoneHammer();
-            case 5:
-                return new DiamondSword();
-            case 6:
-                return new SparkleDagger();
-            default:
-                return new NoWeapon();
-        }
-    }
-
-    private Ring createRing(int ringNumber) {
-        return switch (ringNumber) {
-            case 0 -> new NoRing();
-            case 1 -> new BigOneRing();
-            case 2 -> new LittleOneRing();
-            case 3 -> new TenacityRing();
-            case 4 -> new MehRing();
-            case 5 -> new PrimeDirectiveRing();
-            case 6 -> new TwoRing();
-            default -> throw new IllegalArgumentException("Invalid ring number: " + ringNumber);
-        };
+    // Whether a match prize is a weapon (otherwise a ring)
+    public boolean nextPrizeIsWeapon() {
+        beginInput();
+        boolean isWeapon = random.nextBoolean();
+        endInput(GameInput.Kind.PRIZE_KIND, isWeapon ? 1 : 0, 0, 0);
+        return isWeapon;
     }
 
-    private Weapon createWeapon(int weaponNumber) {
-        return switch (weaponNumber) {
-            case 0 -> new NoWeapon();
-            case 1 -> new LightningWand();
-            case 2 -> new FireStaff();
-            case 3 -> new FrostBow();
-            case 4 -> new StoneHammer();
-            case 5 -> new DiamondSword();
-            case 6 -> new SparkleDagger();
-            default -> throw new IllegalArgumentException("Invalid weapon number: " + weaponNumber);
-        };
+    public Weapon getRandomWeapon() {
+        beginInput();
+        int id = EquipmentRegistry.randomWeaponId(random);
+        endInput(GameInput.Kind.RANDOM_WEAPON, id, 0, 0);
+        return EquipmentRegistry.getWeapon(id);
     }
 
     public Ring getRandomRing() {
-        int ringNum = random.nextInt(6) + 1;
-        return createRing(ringNum);
+        beginInput();
+        int id = EquipmentRegistry.randomRingId(random);
+        endInput(GameInput.Kind.RANDOM_RING, id, 0, 0);
+        return EquipmentRegistry.getRing(id);
     }
 
     public void equipPlayerRings(int ring1, int ring2, int ring3) {
-        // Store ring numbers to persist across matches
+        setRings(ring1, ring2, ring3);
+        beginInput();
+        // Store ring numbers to persist across matches, once they are known to be valid
         this.equippedRingNumbers = new int[] { ring1, ring2, ring3 };
-        player.setRings(createRing(ring1), createRing(ring2), createRing(ring3));
+        endInput(GameInput.Kind.EQUIP_RINGS, ring1, ring2, ring3);
     }
 
     public void equipPlayerWeapon(int weaponNumber) {
-        // Store weapon number to persist across matches
+        player.setWeapon(EquipmentRegistry.getWeapon(weaponNumber));
+        beginInput();
+        // Store weapon number to persist across matches, once it is known to be valid
         this.equippedWeaponNumber = weaponNumber;
-        player.setWeapon(createWeapon(weaponNumber));
+        endInput(GameInput.Kind.EQUIP_WEAPON, weaponNumber, 0, 0);
+    }
+
+    // Equips the player for the current match only (e.g. a prize)
+    public void setPlayerWeapon(int weaponNumber) {
+        player.setWeapon(EquipmentRegistry.getWeapon(weaponNumber));
+        beginInput();
+        endInput(GameInput.Kind.SET_WEAPON, weaponNumber, 0, 0);
+    }
+
+    public void setPlayerRings(int ring1, int ring2, int ring3) {
+        setRings(ring1, ring2, ring3);
+        beginInput();
+        endInput(GameInput.Kind.SET_RINGS, ring1, ring2, ring3);
+    }
+
+    private void setRings(int ring1, int ring2, int ring3) {
+        player.setRings(EquipmentRegistry.getRing(ring1), EquipmentRegistry.getRing(ring2),
+                EquipmentRegistry.getRing(ring3));
     }
 
     private void performOpponentAttack() {
         // Choose random alive opponent to attack
-        List<Integer> aliveIndices = new ArrayList<>();
-        for (int i = 0; i < opponents.length; i++) {
-            if (opponents[i].isAlive()) {
-                aliveIndices.add(i);
+        int aliveCount = 0;
+        for (Opponent opponent : opponents) {
+            if (opponent.isAlive()) {
+                aliveCount++;
             }
         }
 
-        if (aliveIndices.isEmpty() || !player.isAlive()) {
+        if (aliveCount == 0 || !player.isAlive()) {
             return;
         }
 
-        int attackerIndex = aliveIndices.get(random.nextInt(aliveIndices.size()));
+        int attackerIndex = nthAliveOpponent(random.nextInt(aliveCount));
         int damage = baseOpponentDamage;
         player.takeDamage(damage);
 
-        notifyObservers(new GameEvent(GameEvent.EventType.OPPONENT_ATTACKED, "GameEngine",
-                new GameEvent.OpponentAttackData(attackerIndex, damage)));
-        notifyObservers(new GameEvent(GameEvent.EventType.CHARACTER_DAMAGED, "GameEngine",
-                new StatsTracker.DamageData(damage, true)));
+        if (hasObservers(GameEvent.EventType.OPPONENT_ATTACKED)) {
+            notifyObservers(event(GameEvent.EventType.OPPONENT_ATTACKED, "GameEngine", reuseEvents
+                    ? opponentAttackData.set(attackerIndex, damage)
+                    : new GameEvent.OpponentAttackData(attackerIndex, damage)));
+        }
+        if (hasObservers(GameEvent.EventType.CHARACTER_DAMAGED)) {
+            notifyObservers(event(GameEvent.EventType.CHARACTER_DAMAGED, "GameEngine", damagePayload(damage, true)));
+        }
 
         if (!player.isAlive()) {
-            notifyObservers(new GameEvent(GameEvent.EventType.MATCH_LOST, "GameEngine", null));
+            notifySimple(GameEvent.EventType.MATCH_LOST, "GameEngine");
+        }
+    }
+
+    // Index of the n-th (0-based) living opponent
+    private int nthAliveOpponent(int n) {
+        for (int i = 0; i < opponents.length; i++) {
+            if (opponents[i].isAlive() && n-- == 0) {
+                return i;
+            }
         }
+        throw new IllegalArgumentException("Not enough living opponents");
     }
 
     private boolean allOpponentsDefeated() {
@@ -295,7 +589,7 @@ public class GameEngine {
     }
 
     // Getters
-    public GameBoard getBoard() {
+    public Board getBoard() {
         return board;
     }
 
@@ -311,24 +605,41 @@ public class GameEngine {
         return currentFill;
     }
 
+    // Seed of the engine's random source; with the same moves it replays the same game
+    public long getSeed() {
+        return seed;
+    }
+
+    public RandomGenerator getRandom() {
+        return random;
+    }
+
+    public GameClock getClock() {
+        return clock;
+    }
+
     public StatsTracker getStats() {
         return stats;
     }
 
     public void setCheatLowHealth(boolean value) {
+        beginInput();
         this.cheatLowHealth = value;
         // Apply cheat to current opponents if match is in progress
         if (opponents != null) {
             applyHealthCheatToOpponents();
         }
+        endInput(GameInput.Kind.LOW_HEALTH, value ? 1 : 0, 0, 0);
     }
 
     public void setCheatHighHealth(boolean value) {
+        beginInput();
         this.cheatHighHealth = value;
 
         if (opponents != null) {
             applyHealthCheatToOpponents();
         }
+        endInput(GameInput.Kind.HIGH_HEALTH, value ? 1 : 0, 0, 0);
     }
 
     private void applyHealthCheatToOpponents() {
@@ -347,7 +658,9 @@ public class GameEngine {
         if (max < 1) {
             throw new IllegalArgumentException("Max value must be at least 1");
         }
+        beginInput();
         board.setValueRange(0, max);
+        endInput(GameInput.Kind.MAX_VALUE, max, 0, 0);
     }
 
 }
@@ -1,10 +1,17 @@
 package model;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Represents a game event that can be observed.
  * Events contain structured information about what happened in the game.
+ *
+ * An engine with event reuse on (GameEngine.setReuseEvents) hands out one mutable event
+ * per type and one payload object per payload class, overwritten for every event. Such
+ * events report isReused() and are only valid during the observer callback; observers
+ * that keep an event must keep copy() of it instead.
  */
 public class GameEvent {
     public enum EventType {
@@ -21,14 +28,31 @@ public class GameEvent {
         EQUIPMENT_ACTIVATED
     }
 
-    private final EventType type;
-    private final String source;
-    private final Object data;
+    private EventType type;
+    private String source;
+    private Object data;
+    private final boolean reused;
 
     public GameEvent(EventType type, String source, Object data) {
+        this(type, source, data, false);
+    }
+
+    GameEvent(EventType type, String source, Object data, boolean reused) {
         this.type = type;
         this.source = source;
         this.data = data;
+        this.reused = reused;
+    }
+
+    // Flyweight for a reusing engine
+    static GameEvent reusable(EventType type) {
+        return new GameEvent(type, null, null, true);
+    }
+
+    GameEvent set(String source, Object data) {
+        this.source = source;
+        this.data = data;
+        return this;
     }
 
     public EventType getType() {
@@ -43,70 +67,172 @@ public class GameEvent {
         return data;
     }
 
+    // True for flyweights that the engine overwrites once the callback returns
+    public boolean isReused() {
+        return reused;
+    }
+
+    // Independent event with its own copy of the payload
+    public GameEvent copy() {
+        Object copied = data;
+        if (data instanceof CellAddedData d) {
+            copied = new CellAddedData(d.row, d.col, d.value, d.currentStrength);
+        } else if (data instanceof OpponentAttackData d) {
+            copied = new OpponentAttackData(d.attackerIndex, d.damage);
+        } else if (data instanceof AttackData d) {
+            copied = d.copy();
+        } else if (data instanceof StatsTracker.DamageData d) {
+            copied = new StatsTracker.DamageData(d.amount, d.isPlayer);
+        } else if (data instanceof StatsTracker.EquipmentActivationData d) {
+            copied = new StatsTracker.EquipmentActivationData(d.id, d.name, d.isWeapon);
+        }
+        return new GameEvent(type, source, copied);
+    }
+
     // Data for ATTACK_PERFORMED events.
+    // A reused instance keeps its lists and TargetDamage objects and refills them.
     public static class AttackData {
-        public final int strength;
+        public int strength;
         public final List<String> activeRings;
-        public final String weaponName;
-        public final boolean weaponActivated;
-        public final String weaponDescription;
+        private int[] activeRingIds; // EquipmentRegistry ids, parallel to activeRings
+        public int weaponId;
+        public String weaponName;
+        public boolean weaponActivated;
+        public String weaponDescription;
         public final List<TargetDamage> targets;
+        private final List<TargetDamage> targetPool;
 
         public AttackData(int strength, List<String> activeRings,
                 String weaponName, boolean weaponActivated,
                 String weaponDescription, List<TargetDamage> targets) {
             this.strength = strength;
             this.activeRings = activeRings;
+            this.activeRingIds = new int[Math.max(3, activeRings.size())]; // NO_RING unless added by Player
             this.weaponName = weaponName;
             this.weaponActivated = weaponActivated;
             this.weaponDescription = weaponDescription;
             this.targets = targets;
+            this.targetPool = new ArrayList<>();
+        }
+
+        // Empty attack, to be filled in by Player.attack
+        public AttackData() {
+            this(0, new ArrayList<>(), "", false, "", new ArrayList<>());
+        }
+
+        // EquipmentRegistry id of the i-th entry of activeRings
+        public int getActiveRingId(int i) {
+            if (i < 0 || i >= activeRings.size()) {
+                throw new IndexOutOfBoundsException("No active ring " + i);
+            }
+            return activeRingIds[i];
+        }
+
+        void reset(int strength) {
+            this.strength = strength;
+            this.weaponId = EquipmentRegistry.NO_WEAPON;
+            this.weaponName = "";
+            this.weaponActivated = false;
+            this.weaponDescription = "";
+            activeRings.clear();
+            targets.clear();
+        }
+
+        void addActiveRing(int id, String name) {
+            int n = activeRings.size();
+            if (n == activeRingIds.length) {
+                activeRingIds = Arrays.copyOf(activeRingIds, n * 2);
+            }
+            activeRingIds[n] = id;
+            activeRings.add(name);
+        }
+
+        void setWeapon(int weaponId, String weaponName, boolean weaponActivated, String weaponDescription) {
+            this.weaponId = weaponId;
+            this.weaponName = weaponName;
+            this.weaponActivated = weaponActivated;
+            this.weaponDescription = weaponDescription;
+        }
+
+        void addTarget(int targetIndex, int damage, boolean killed, boolean missed) {
+            int n = targets.size();
+            if (n == targetPool.size()) {
+                targetPool.add(new TargetDamage(targetIndex, damage, killed, missed));
+            }
+            targets.add(targetPool.get(n).set(targetIndex, damage, killed, missed));
+        }
+
+        AttackData copy() {
+            List<TargetDamage> targetsCopy = new ArrayList<>(targets.size());
+            for (TargetDamage t : targets) {
+                targetsCopy.add(new TargetDamage(t.targetIndex, t.damage, t.killed, t.missed));
+            }
+            AttackData copy = new AttackData(strength, new ArrayList<>(activeRings), weaponName, weaponActivated,
+                    weaponDescription, targetsCopy);
+            copy.activeRingIds = activeRingIds.clone();
+            copy.weaponId = weaponId;
+            return copy;
         }
     }
 
     // Information about damage dealt to a single target.
-    public static class TargetDamage {
-        public final int targetIndex; // 0=left, 1=middle, 2=right
-        public final int damage;
-        public final boolean killed;
-        public final boolean missed; // true if target was already dead
+    public static final class TargetDamage {
+        public int targetIndex; // 0=left, 1=middle, 2=right
+        public int damage;
+        public boolean killed;
+        public boolean missed; // true if target was already dead
 
         public TargetDamage(int targetIndex, int damage, boolean killed, boolean missed) {
-            this.targetIndex = targetIndex;
-            this.damage = damage;
-            this.killed = killed;
-            this.missed = missed;
+            set(targetIndex, damage, killed, missed);
         }
 
         // Convenience constructor for hits
         public TargetDamage(int targetIndex, int damage, boolean killed) {
             this(targetIndex, damage, killed, false);
         }
+
+        TargetDamage set(int targetIndex, int damage, boolean killed, boolean missed) {
+            this.targetIndex = targetIndex;
+            this.damage = damage;
+            this.killed = killed;
+            this.missed = missed;
+            return this;
+        }
     }
 
     // Data for CELL_ADDED_TO_FILL events.
-    public static class CellAddedData {
-        public final int row;
-        public final int col;
-        public final int value;
-        public final int currentStrength;
+    public static final class CellAddedData {
+        public int row;
+        public int col;
+        public int value;
+        public int currentStrength;
 
         public CellAddedData(int row, int col, int value, int currentStrength) {
+            set(row, col, value, currentStrength);
+        }
+
+        CellAddedData set(int row, int col, int value, int currentStrength) {
             this.row = row;
             this.col = col;
             this.value = value;
             this.currentStrength = currentStrength;
+            return this;
         }
     }
 
     // Data for OPPONENT_ATTACKED events.
-    public static class OpponentAttackData {
-        public final int attackerIndex;
-        public final int damage;
+    public static final class OpponentAttackData {
+        public int attackerIndex;
+        public int damage;
 
         public OpponentAttackData(int attackerIndex, int damage) {
+            set(attackerIndex, damage);
+        }
+
+        OpponentAttackData set(int attackerIndex, int damage) {
             this.attackerIndex = attackerIndex;
             this.damage = damage;
+            return this;
         }
     }
 }
@@ -0,0 +1,116 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * One input a GameEngine took, as reported to its InputRecorder: a move, a cheat, a new
+ * match or a prize draw, with its arguments and every clock reading the engine made while
+ * handling it. Together with the BEGIN input (seed, board kind and size, and the start
+ * time of the first fill) this is all a Replayer needs to play the game again exactly.
+ *
+ * Draws from the engine's random source (PRIZE_KIND, RANDOM_WEAPON, RANDOM_RING) record
+ * what they returned, so a replay can tell when it has gone off track.
+ */
+public final class GameInput {
+    public enum Kind {
+        BEGIN(2),         // board kind, board size; seed in getSeed
+        NEW_MATCH(0),
+        SUM(1),           // the sum played
+        LOW_HEALTH(1),    // 1 for on, 0 for off
+        HIGH_HEALTH(1),   // 1 for on, 0 for off
+        EQUIP_WEAPON(1),  // weapon id, kept across matches
+        EQUIP_RINGS(3),   // ring ids, kept across matches
+        MAX_VALUE(1),     // the new maximum cell value
+        PRIZE_KIND(1),    // 1 when the prize is a weapon
+        RANDOM_WEAPON(1), // the weapon id drawn
+        RANDOM_RING(1),   // the ring id drawn
+        SET_WEAPON(1),    // weapon id, for this match only
+        SET_RINGS(3);     // ring ids, for this match only
+
+        private final int argumentCount;
+
+        Kind(int argumentCount) {
+            this.argumentCount = argumentCount;
+        }
+
+        public int getArgumentCount() {
+            return argumentCount;
+        }
+    }
+
+    // Board kinds of a BEGIN input
+    public static final int GAME_BOARD = 0;
+    public static final int BIT_BOARD = 1;
+
+    private Kind kind;
+    private long seed;
+    private final int[] arguments = new int[3];
+    private long[] clockReads = new long[4];
+    private int clockReadCount;
+
+    public GameInput() {
+        this.kind = Kind.NEW_MATCH;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    // The engine seed; only meaningful for BEGIN
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getArgument(int index) {
+        if (index < 0 || index >= kind.argumentCount) {
+            throw new IndexOutOfBoundsException(kind + " has no argument " + index);
+        }
+        return arguments[index];
+    }
+
+    public int getClockReadCount() {
+        return clockReadCount;
+    }
+
+    public long getClockRead(int index) {
+        if (index < 0 || index >= clockReadCount) {
+            throw new IndexOutOfBoundsException("No clock read " + index + " of " + clockReadCount);
+        }
+        return clockReads[index];
+    }
+
+    GameInput set(Kind kind, long seed, int a, int b, int c) {
+        this.kind = kind;
+        this.seed = seed;
+        arguments[0] = a;
+        arguments[1] = b;
+        arguments[2] = c;
+        return this;
+    }
+
+    void addClockRead(long nanos) {
+        if (clockReadCount == clockReads.length) {
+            clockReads = Arrays.copyOf(clockReads, clockReadCount * 2);
+        }
+        clockReads[clockReadCount++] = nanos;
+    }
+
+    void clearClockReads() {
+        clockReadCount = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(kind.toString());
+        if (kind == Kind.BEGIN) {
+            sb.append(" seed ").append(seed);
+        }
+        for (int i = 0; i < kind.argumentCount; i++) {
+            sb.append(i == 0 ? " " : ", ").append(arguments[i]);
+        }
+        if (clockReadCount > 0) {
+            sb.append(" at ").append(Arrays.toString(Arrays.copyOf(clockReads, clockReadCount)));
+        }
+        return sb.toString();
+    }
+}
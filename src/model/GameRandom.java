@@ -0,0 +1,56 @@
+package model;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * The single random source of a game: boards, opponent attacks and random weapons
+ * all draw from the engine's GameRandom.
+ * Uses the SplitMix64 algorithm (the one behind SplittableRandom), which is fast and
+ * unsynchronized, and unlike the JDK generators exposes its one-word state so a game
+ * can be reproduced bit for bit from a seed, copied, or saved and restored.
+ * Not thread-safe; every engine (or simulation shard) gets its own instance.
+ */
+public class GameRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private long state;
+
+    public GameRandom() {
+        this(newSeed());
+    }
+
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    // A fresh, well-mixed seed for games that were not given one
+    public static long newSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    @Override
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // Independent generator seeded from this one, e.g. for a simulation shard
+    public GameRandom split() {
+        return new GameRandom(nextLong());
+    }
+
+    // Generator that will produce exactly the same sequence as this one from now on
+    public GameRandom copy() {
+        return new GameRandom(state);
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+}
@@ -0,0 +1,10 @@
+package model;
+
+/**
+ * Receives every input a GameEngine takes, once the engine has handled it (so after the
+ * events it caused). The input is a flyweight that the engine overwrites with the next
+ * one; record it before returning.
+ */
+public interface InputRecorder {
+    void record(GameInput input);
+}
@@ -0,0 +1,526 @@
+package model;
+
+import model.weapon.AttackBuffer;
+import model.weapon.Weapon;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Finds the sum to play that maximizes the expected damage of the attack made when the
+ * current fill completes, for the player's equipped rings and weapon, less a cost for
+ * every turn it takes (the opponents attack on a timer, so a slower fill is worse).
+ *
+ * A sum picks an outer cell value: the engine takes the first matching cell not yet in
+ * the fill, or a random matching cell when they are all in it. Adding a new cell only
+ * changes the order of the fill, so every fill can be completed by playing each missing
+ * cell once. Playing a cell already in the fill (an extra move) adds its value to the
+ * strength again and is how FireStaff and StoneHammer reach their cell counts, but the
+ * cell is regenerated, so the search is an expectimax: extra moves average over which
+ * cell was taken and over every value regenerateCellValue can give it.
+ *
+ * Extra moves are only tried during the next few turns (the lookahead); after that the
+ * search just orders the missing cells, which needs no chance nodes. The solver is meant
+ * to be asked again every turn, so later extra moves come into view as the fill goes on.
+ * The lookahead deepens one turn at a time until the time budget or MAX_NODES runs out
+ * and the answer comes from the deepest search that finished. When the value range is
+ * wider than MAX_CHANCE_VALUES (after "cheat max"), a regenerated value is averaged over
+ * that many equal buckets of the range, each stood for by its middle value. Positions
+ * are memoized on the fill cells, strength, ordering, moves made and (inside the
+ * lookahead) the values of the cells in the fill. Weapons that depend on time are judged
+ * by assuming every turn takes millisPerTurn; weapons with a random extra target are
+ * averaged over the target.
+ *
+ * Works on boards of up to 32 cells. A solver keeps its scratch state between calls,
+ * so each thread needs its own.
+ */
+public class MoveSolver {
+    public static final int MAX_CELLS = 32;
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 50;
+    public static final int DEFAULT_MAX_LOOKAHEAD = 3;
+    public static final long DEFAULT_MILLIS_PER_TURN = 1000;
+
+    private static final int ASCENDING = 1;
+    private static final int DESCENDING = 2;
+    private static final int DEADLINE_CHECK_INTERVAL = 1024; // nodes between clock reads
+    private static final int MEMO_LIMIT = 1 << 20;
+    private static final long MAX_NODES = 10_000_000; // a few seconds; applies without a time budget too
+    private static final int MAX_CHANCE_VALUES = 16; // the default range, which is enumerated exactly
+
+    private final long timeBudgetNanos; // 0 means no limit
+    private final int maxLookahead;
+    private final long millisPerTurn;
+
+    // Scratch state, reset by every solve
+    private final Map<StateKey, Double> memo = new HashMap<>();
+    private final SimulatedClock scratchClock = new SimulatedClock();
+    private final Fill scratchFill = new Fill(scratchClock);
+    private final AttackBuffer attackBuffer = new AttackBuffer();
+    private final ScriptedRandom scriptedRandom = new ScriptedRandom();
+    private Board board;
+    private Fill fill;
+    private Weapon weapon;
+    private RingTable ringTable;
+    private Opponent[] opponents;
+    private int[] health = new int[0];
+    private int[] values = new int[0];  // by cell index; cells in the fill change as the search regenerates them
+    private int[] keyValues = new int[0];
+    private int[] keyBuffer = new int[0];
+    private int outerMask;
+    private int minValue;
+    private int maxValue;
+    private int[] pathCells = new int[0]; // moves made by the search so far
+    private int[] pathValues = new int[0];
+    private int pathLength;
+    private double turnCost; // damage a turn is worth, charged for every turn until the attack
+    private long deadline;
+    private long nodes;
+    private boolean outOfTime; // or out of nodes
+
+    public MoveSolver() {
+        this(DEFAULT_TIME_BUDGET_MILLIS, DEFAULT_MAX_LOOKAHEAD, DEFAULT_MILLIS_PER_TURN);
+    }
+
+    // timeBudgetMillis 0 searches every lookahead up to maxLookahead, bounded only by
+    // MAX_NODES (so the result is reproducible)
+    public MoveSolver(long timeBudgetMillis, int maxLookahead, long millisPerTurn) {
+        if (timeBudgetMillis < 0 || maxLookahead < 0 || millisPerTurn < 0) {
+            throw new IllegalArgumentException("Solver limits cannot be negative");
+        }
+        this.timeBudgetNanos = timeBudgetMillis * 1_000_000L;
+        this.maxLookahead = maxLookahead;
+        this.millisPerTurn = millisPerTurn;
+    }
+
+    public Solution solve(GameEngine engine) {
+        return solve(engine.getBoard(), engine.getCurrentFill(), engine.getPlayer(), engine.getOpponents());
+    }
+
+    public Solution solve(Board board, Fill fill, Player player, Opponent[] opponents) {
+        int size = board.getBoardSize();
+        if (size * size > MAX_CELLS) {
+            throw new IllegalArgumentException("Solver supports boards of up to " + MAX_CELLS + " cells");
+        }
+        long start = System.nanoTime();
+        prepare(board, fill, player, opponents);
+        deadline = start + timeBudgetNanos;
+
+        int filled = 0;
+        for (int cell = 0; cell < size * size; cell++) {
+            if ((outerMask >>> cell & 1) != 0 && board.isInFill(board.getRow(cell), board.getCol(cell))) {
+                filled |= 1 << cell;
+            }
+        }
+        int lastValue = fill.isEmpty() ? 0 : fill.getValueAt(fill.getCellCount() - 1);
+        int order = (fill.isAscending() ? ASCENDING : 0) | (fill.isDescending() ? DESCENDING : 0);
+
+        // Fill already complete (not normally seen between turns): any outer cell is a legal move
+        int bestValue = values[Integer.numberOfTrailingZeros(outerMask)];
+        double bestScore = 0;
+        int searched = -1;
+        if (filled != outerMask) {
+            bestValue = values[Integer.numberOfTrailingZeros(outerMask & ~filled)]; // greedy fallback
+            for (int lookahead = 0; lookahead <= maxLookahead; lookahead++) {
+                int after = Math.max(0, lookahead - 1);
+                int candidateValue = -1;
+                double candidateScore = Double.NEGATIVE_INFINITY;
+                for (int cell = 0; cell < size * size; cell++) {
+                    boolean inFill = (filled >>> cell & 1) != 0;
+                    if (!isMove(cell, filled) || (inFill && lookahead == 0)) {
+                        continue;
+                    }
+                    double score = !inFill
+                            ? playCell(cell, filled, fill.getStrength(), lastValue, order, after)
+                            : playFilledValue(values[cell], filled, fill.getStrength(), lastValue, order, after);
+                    if (score > candidateScore) {
+                        candidateScore = score;
+                        candidateValue = values[cell];
+                    }
+                }
+                if (outOfTime) {
+                    break; // keep the deepest search that finished
+                }
+                if (lookahead == 0) {
+                    // Every plan without extra moves takes the same number of turns, so the
+                    // first pass runs without a turn cost and then sets it to the damage per
+                    // turn of its best plan over a whole fill. An extra move is then worth
+                    // playing only if it adds more damage than the turn it costs.
+                    turnCost = candidateScore / Integer.bitCount(outerMask);
+                    candidateScore -= turnCost * Integer.bitCount(outerMask & ~filled);
+                    memo.clear();
+                }
+                bestValue = candidateValue;
+                bestScore = candidateScore;
+                searched = lookahead;
+            }
+        }
+
+        Solution solution = new Solution(board.getCenterValue() + bestValue, bestScore, turnCost, searched, nodes,
+                (System.nanoTime() - start) / 1_000_000L);
+        release();
+        return solution;
+    }
+
+    private void prepare(Board board, Fill fill, Player player, Opponent[] opponents) {
+        int size = board.getBoardSize();
+        this.board = board;
+        this.fill = fill;
+        this.weapon = player.getWeapon();
+        this.ringTable = RingTable.forRings(player.getRings());
+        this.opponents = opponents;
+        if (health.length < opponents.length) {
+            health = new int[opponents.length];
+        }
+        if (values.length < size * size) {
+            values = new int[size * size];
+            keyValues = new int[size * size];
+            keyBuffer = new int[5 + size * size];
+        }
+        outerMask = 0;
+        for (int cell = 0; cell < size * size; cell++) {
+            int row = board.getRow(cell);
+            int col = board.getCol(cell);
+            if (board.isOuterCell(row, col)) {
+                outerMask |= 1 << cell;
+                values[cell] = board.getCellValue(row, col);
+            }
+        }
+        minValue = board.getMinValue();
+        maxValue = board.getMaxValue();
+        pathLength = 0;
+        turnCost = 0;
+        nodes = 0;
+        outOfTime = false;
+        memo.clear();
+    }
+
+    // Drop references to the caller's objects between solves
+    private void release() {
+        board = null;
+        fill = null;
+        weapon = null;
+        opponents = null;
+        memo.clear();
+    }
+
+    // True if playing this cell's value is a distinct move: the first cell outside the fill
+    // holding its value, or the first cell in the fill holding a value no cell outside has
+    private boolean isMove(int cell, int filled) {
+        if ((outerMask >>> cell & 1) == 0) {
+            return false;
+        }
+        boolean inFill = (filled >>> cell & 1) != 0;
+        int value = values[cell];
+        for (int other = 0; other < values.length && (outerMask >>> other) != 0; other++) {
+            if ((outerMask >>> other & 1) == 0 || other == cell || values[other] != value) {
+                continue;
+            }
+            boolean otherInFill = (filled >>> other & 1) != 0;
+            if (inFill && !otherInFill) {
+                return false; // the engine would take the cell outside the fill
+            }
+            if (other < cell && inFill == otherInFill) {
+                return false; // same move as the earlier cell
+            }
+        }
+        return true;
+    }
+
+    // Expected damage of the best play from this position; extra moves are only tried
+    // during the next lookahead turns
+    private double search(int filled, int strength, int lastValue, int order, int lookahead) {
+        if (++nodes > MAX_NODES
+                || nodes % DEADLINE_CHECK_INTERVAL == 0 && timeBudgetNanos > 0 && System.nanoTime() > deadline) {
+            outOfTime = true;
+        }
+        if (outOfTime) {
+            return 0;
+        }
+        StateKey key = stateKey(filled, strength, lastValue, order, lookahead);
+        Double known = memo.get(key);
+        if (known != null) {
+            return known;
+        }
+
+        double best = 0;
+        int after = Math.max(0, lookahead - 1);
+        for (int cell = 0; cell < values.length && (outerMask >>> cell) != 0; cell++) {
+            if (!isMove(cell, filled)) {
+                continue;
+            }
+            if ((filled >>> cell & 1) == 0) {
+                best = Math.max(best, playCell(cell, filled, strength, lastValue, order, after));
+            } else if (lookahead > 0) {
+                best = Math.max(best, playFilledValue(values[cell], filled, strength, lastValue, order, after));
+            }
+        }
+
+        if (!outOfTime && memo.size() < MEMO_LIMIT) {
+            memo.put(key, best);
+        }
+        return best;
+    }
+
+    // Extra move on a value held only by cells in the fill: the engine picks one at random
+    private double playFilledValue(int value, int filled, int strength, int lastValue, int order, int lookahead) {
+        double total = 0;
+        int matches = 0;
+        for (int cell = 0; cell < values.length && (filled >>> cell) != 0; cell++) {
+            if ((filled >>> cell & 1) != 0 && values[cell] == value) {
+                total += playCell(cell, filled, strength, lastValue, order, lookahead);
+                matches++;
+            }
+        }
+        return total / matches;
+    }
+
+    // Adds the cell to the fill, then averages over the value it is regenerated with.
+    // lookahead is what is left for the position after the move.
+    private double playCell(int cell, int filled, int strength, int lastValue, int order, int lookahead) {
+        int value = values[cell];
+        if (fill.getCellCount() + pathLength > 0) {
+            order &= (value > lastValue ? ASCENDING : 0) | (value < lastValue ? DESCENDING : 0);
+        }
+        filled |= 1 << cell;
+        strength += value;
+        push(cell, value);
+
+        double result;
+        if (filled == outerMask) {
+            result = attackDamage(strength, cell) - turnCost * pathLength;
+        } else if (lookahead == 0) {
+            // Cells in the fill are not played again, so the new value does not matter
+            result = search(filled, strength, value, order, 0);
+        } else if (maxValue - minValue < MAX_CHANCE_VALUES) {
+            double total = 0;
+            for (int regenerated = minValue; regenerated <= maxValue; regenerated++) {
+                values[cell] = regenerated;
+                total += search(filled, strength, value, order, lookahead);
+            }
+            values[cell] = value;
+            result = total / (maxValue - minValue + 1);
+        } else {
+            // Wide range: each bucket's middle value, weighted by the bucket's size
+            long range = (long) maxValue - minValue + 1;
+            double total = 0;
+            for (int bucket = 0; bucket < MAX_CHANCE_VALUES; bucket++) {
+                long low = minValue + range * bucket / MAX_CHANCE_VALUES;
+                long high = minValue + range * (bucket + 1) / MAX_CHANCE_VALUES; // exclusive
+                values[cell] = (int) ((low + high - 1) / 2);
+                total += (high - low) * search(filled, strength, value, order, lookahead);
+            }
+            values[cell] = value;
+            result = total / range;
+        }
+
+        pathLength--;
+        return result;
+    }
+
+    private void push(int cell, int value) {
+        if (pathLength == pathCells.length) {
+            pathCells = Arrays.copyOf(pathCells, Math.max(16, pathLength * 2));
+            pathValues = Arrays.copyOf(pathValues, pathCells.length);
+        }
+        pathCells[pathLength] = cell;
+        pathValues[pathLength++] = value;
+    }
+
+    // Cells in the fill only matter as targets for extra moves, and an extra move picks a
+    // value, not a cell, so they are keyed as a sorted list of values. A value held more
+    // often than the extra moves still possible is listed only that many times.
+    private StateKey stateKey(int filled, int strength, int lastValue, int order, int lookahead) {
+        int length = 5;
+        if (lookahead > 0) {
+            int count = 0;
+            for (int cell = 0; cell < values.length && (filled >>> cell) != 0; cell++) {
+                if ((filled >>> cell & 1) != 0) {
+                    keyValues[count++] = values[cell];
+                }
+            }
+            Arrays.sort(keyValues, 0, count);
+            int repeats = 0;
+            for (int i = 0; i < count; i++) {
+                repeats = i > 0 && keyValues[i] == keyValues[i - 1] ? repeats + 1 : 1;
+                if (repeats <= lookahead) {
+                    keyBuffer[length++] = keyValues[i];
+                }
+            }
+        }
+        keyBuffer[0] = filled;
+        keyBuffer[1] = strength;
+        keyBuffer[2] = lastValue;
+        keyBuffer[3] = order | lookahead << 2;
+        keyBuffer[4] = pathLength; // decides elapsed time and cell count at the attack
+        return new StateKey(Arrays.copyOf(keyBuffer, length));
+    }
+
+    // Damage the completing attack would deal, counting no more than each opponent's health
+    private double attackDamage(int strength, int lastCell) {
+        int targetIndex = board.getCol(lastCell) * opponents.length / board.getBoardSize();
+        int baseDamage = 100 + strength;
+        double ringMultiplier = ringTable.multiplier(ringTable.activeMask(strength));
+
+        replayFill();
+        if (!weapon.activates(scratchFill)) {
+            attackBuffer.clear();
+            attackBuffer.add(targetIndex, 1.0);
+            return dealtDamage(baseDamage, ringMultiplier);
+        }
+
+        // Enumerate the first random draw of the weapon; later draws (none today) get 0
+        scriptedRandom.script(0);
+        attackBuffer.clear();
+        weapon.applyEffect(scratchFill, opponents, baseDamage, targetIndex, scriptedRandom, attackBuffer);
+        double total = dealtDamage(baseDamage, ringMultiplier);
+        int outcomes = Math.max(1, scriptedRandom.firstBound);
+        for (int draw = 1; draw < outcomes; draw++) {
+            scriptedRandom.script(draw);
+            attackBuffer.clear();
+            weapon.applyEffect(scratchFill, opponents, baseDamage, targetIndex, scriptedRandom, attackBuffer);
+            total += dealtDamage(baseDamage, ringMultiplier);
+        }
+        return total / outcomes;
+    }
+
+    // Same rounding and order as Player.applyDamage
+    private double dealtDamage(int baseDamage, double ringMultiplier) {
+        for (int i = 0; i < opponents.length; i++) {
+            health[i] = opponents[i].getHealth();
+        }
+        int dealt = 0;
+        for (int i = 0; i < attackBuffer.size(); i++) {
+            int target = attackBuffer.getTarget(i);
+            if (health[target] > 0) {
+                int damage = (int) Math.round(baseDamage * (attackBuffer.getMultiplier(i) * ringMultiplier));
+                dealt += Math.min(damage, health[target]);
+                health[target] = Math.max(0, health[target] - damage);
+            }
+        }
+        return dealt;
+    }
+
+    // Rebuilds the fill as it will be at the attack, pathLength turns from now
+    private void replayFill() {
+        scratchFill.reset();
+        int existing = fill.getCellCount();
+        for (int i = 0; i < existing; i++) {
+            // Only the last cell's position is ever read, and a completing move replaces it
+            scratchFill.addCell(0, 0, fill.getValueAt(i));
+        }
+        for (int i = 0; i < pathLength; i++) {
+            int cell = pathCells[i];
+            scratchFill.addCell(board.getRow(cell), board.getCol(cell), pathValues[i]);
+        }
+        long elapsedMillis = fill.getElapsedTime() + pathLength * millisPerTurn;
+        scratchClock.advance(elapsedMillis * 1_000_000L);
+    }
+
+    /**
+     * Best move found by a solve: the sum to type and its score, the expected damage of
+     * the completing attack less turnCost for every turn until then. lookahead is that of
+     * the deepest finished search (-1 if even the plain ordering search ran out of time
+     * and the first missing cell was chosen).
+     */
+    public static class Solution {
+        private final int sum;
+        private final double score;
+        private final double turnCost;
+        private final int lookahead;
+        private final long nodes;
+        private final long elapsedMillis;
+
+        Solution(int sum, double score, double turnCost, int lookahead, long nodes, long elapsedMillis) {
+            this.sum = sum;
+            this.score = score;
+            this.turnCost = turnCost;
+            this.lookahead = lookahead;
+            this.nodes = nodes;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getSum() {
+            return sum;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public double getTurnCost() {
+            return turnCost;
+        }
+
+        public int getLookahead() {
+            return lookahead;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Sum %d, score %.1f (%.1f damage per turn, lookahead %d, %,d positions, %d ms)",
+                    sum, score, turnCost, lookahead, nodes, elapsedMillis);
+        }
+    }
+
+    // Memo key: the packed position
+    private static final class StateKey {
+        private final int[] key;
+        private final int hash;
+
+        StateKey(int[] key) {
+            this.key = key;
+            this.hash = Arrays.hashCode(key);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey other && Arrays.equals(key, other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Answers the first nextInt(bound) with the scripted draw and records the bound
+    private static final class ScriptedRandom implements RandomGenerator {
+        private int draw;
+        private int firstBound;
+        private boolean drawn;
+
+        void script(int draw) {
+            this.draw = draw;
+            this.firstBound = 0;
+            this.drawn = false;
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            if (bound <= 0) {
+                throw new IllegalArgumentException("bound must be positive");
+            }
+            if (drawn) {
+                return 0;
+            }
+            drawn = true;
+            firstBound = bound;
+            return Math.min(draw, bound - 1);
+        }
+
+        @Override
+        public long nextLong() {
+            return 0;
+        }
+    }
+}
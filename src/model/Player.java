@@ -1,22 +1,29 @@
 package model;
 
-import model.ring.NoRing;
 import model.ring.Ring;
-import model.weapon.NoWeapon;
+import model.weapon.AttackBuffer;
 import model.weapon.Weapon;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.random.RandomGenerator;
 
 public class Player {
     private int health;
-    private Weapon weapon = new NoWeapon();
-    private Ring[] rings = new Ring[] { new NoRing(), new NoRing(), new NoRing() };
+    private Weapon weapon;
+    private final Ring[] rings;
+    private RingTable ringTable; // for the current rings; null after setRings until the next attack
+    private final RandomGenerator random; // for weapons with random targets
+    private final AttackBuffer attackBuffer = new AttackBuffer(); // weapon targets, reused every attack
 
     public Player(int startingHealth) {
+        this(startingHealth, new GameRandom());
+    }
+
+    public Player(int startingHealth, RandomGenerator random) {
         this.health = startingHealth;
-        this.weapon = new NoWeapon();
-        this.rings = new Ring[] { new NoRing(), new NoRing(), new NoRing() };
+        this.random = random;
+        this.weapon = EquipmentRegistry.getWeapon(EquipmentRegistry.NO_WEAPON);
+        Ring noRing = EquipmentRegistry.getRing(EquipmentRegistry.NO_RING);
+        this.rings = new Ring[] { noRing, noRing, noRing };
     }
 
     public void takeDamage(int damage) {
@@ -26,6 +33,11 @@ public class Player {
         }
     }
 
+    // For restoring a snapshot
+    void setHealth(int health) {
+        this.health = health;
+    }
+
     public boolean isAlive() {
         return health > 0;
     }
@@ -34,6 +46,7 @@ public class Player {
         rings[0] = ring1;
         rings[1] = ring2;
         rings[2] = ring3;
+        ringTable = null;
     }
 
     public void setWeapon(Weapon weapon) {
@@ -41,74 +54,101 @@ public class Player {
     }
 
     public GameEvent.AttackData attack(Opponent[] opponents, Fill fill) {
+        return attack(opponents, fill, Board.DEFAULT_SIZE);
+    }
 
-        int[] lastCell = fill.getLastCell();
-        if (lastCell == null) {
+    // boardSize tells which band of columns the last cell of the fill falls in
+    public GameEvent.AttackData attack(Opponent[] opponents, Fill fill, int boardSize) {
+        GameEvent.AttackData result = new GameEvent.AttackData();
+        attack(opponents, fill, boardSize, result);
+        return result;
+    }
 
-            return new GameEvent.AttackData(0, new ArrayList<>(), "", false, "", new ArrayList<>());
+    // Same attack, written into the given AttackData (reused by engines that reuse events)
+    void attack(Opponent[] opponents, Fill fill, int boardSize, GameEvent.AttackData result) {
+        result.reset(0);
+        if (fill.isEmpty()) {
+            return;
         }
 
-        int targetIndex = determineTargetIndex(lastCell[0], lastCell[1]);
+        int targetIndex = determineTargetIndex(fill.getLastCol(), boardSize, opponents.length);
         int strength = fill.getStrength();
         int baseDamage = 100 + strength; // basePlayerDamage + strength
+        result.reset(strength);
 
         // Check ring activations
-        double ringMultiplier = 1.0;
-        List<String> activeRings = new ArrayList<>();
-        for (Ring ring : rings) {
-            if (ring.activates(strength)) { // Pass strength (int), not Fill
-                ringMultiplier *= ring.getDamageMultiplier();
-                activeRings.add(ring.getName());
-
+        if (ringTable == null) {
+            ringTable = RingTable.forRings(rings);
+        }
+        int activeRings = ringTable.activeMask(strength);
+        double ringMultiplier = ringTable.multiplier(activeRings);
+        for (int slot = 0; activeRings >>> slot != 0; slot++) {
+            if ((activeRings >>> slot & 1) != 0) {
+                result.addActiveRing(rings[slot].getId(), rings[slot].getName());
             }
         }
 
         // Check weapon activation
         boolean weaponActivated = weapon.activates(fill);
-        Weapon.AttackResult weaponResult;
-        if (weaponActivated) {
-            weaponResult = weapon.applyEffect(fill, opponents, baseDamage, targetIndex);
-        } else {
-            weaponResult = new Weapon.AttackResult(new int[] { targetIndex }, new double[] { 1.0 }, "");
+        if (!weaponActivated) {
+            // Plain attack on the targeted opponent
+            result.setWeapon(weapon.getId(), weapon.getName(), false, "");
+            applyDamage(opponents, targetIndex, baseDamage, ringMultiplier, result);
+            return;
         }
 
-        // Apply damage to targets
-        List<GameEvent.TargetDamage> targets = new ArrayList<>();
-        for (int i = 0; i < weaponResult.targetIndices.length; i++) {
-            int targetIdx = weaponResult.targetIndices[i];
-            double multiplier = weaponResult.damageMultipliers[i] * ringMultiplier;
-            int damage = (int) Math.round(baseDamage * multiplier);
-
-            if (opponents[targetIdx].isAlive()) {
-                opponents[targetIdx].takeDamage(damage);
-                boolean killed = !opponents[targetIdx].isAlive();
-                targets.add(new GameEvent.TargetDamage(targetIdx, damage, killed, false));
-            } else {
-                // Target already dead - missed
-                targets.add(new GameEvent.TargetDamage(targetIdx, 0, false, true));
-            }
+        attackBuffer.clear();
+        weapon.applyEffect(fill, opponents, baseDamage, targetIndex, random, attackBuffer);
+        result.setWeapon(weapon.getId(), weapon.getName(), true, attackBuffer.getDescription());
+        for (int i = 0; i < attackBuffer.size(); i++) {
+            double multiplier = attackBuffer.getMultiplier(i) * ringMultiplier;
+            applyDamage(opponents, attackBuffer.getTarget(i), baseDamage, multiplier, result);
         }
+    }
 
-        // Return attack data with weapon name, activation status, and description
-        // Events will be fired in GameEngine.performPlayerAttack()
-        return new GameEvent.AttackData(strength, activeRings, weapon.getName(), weaponActivated,
-                weaponResult.description, targets);
+    // Apply damage to one target
+    private void applyDamage(Opponent[] opponents, int targetIdx, int baseDamage, double multiplier,
+            GameEvent.AttackData result) {
+        int damage = (int) Math.round(baseDamage * multiplier);
+        if (opponents[targetIdx].isAlive()) {
+            opponents[targetIdx].takeDamage(damage);
+            boolean killed = !opponents[targetIdx].isAlive();
+            result.addTarget(targetIdx, damage, killed, false);
+        } else {
+            // Target already dead - missed
+            result.addTarget(targetIdx, 0, false, true);
+        }
     }
 
-    private int determineTargetIndex(int row, int col) {
-        if (col == 0)
-            return 0; // Left
-        if (col == 2)
-            return 2; // Right
-        return 1; // Middle
+    // Columns are split into equal bands, one per opponent: on the 3x3 board
+    // column 0 is left, 1 is middle and 2 is right
+    private int determineTargetIndex(int col, int boardSize, int opponentCount) {
+        return col * opponentCount / boardSize;
     }
 
     public Weapon getWeapon() {
         return weapon;
     }
 
+    // A copy; change rings through setRings so the ring table is rebuilt
     public Ring[] getRings() {
-        return rings;
+        return rings.clone();
+    }
+
+    // Ring ids by slot, without copying the rings
+    void copyRingIds(int[] ids) {
+        for (int i = 0; i < rings.length; i++) {
+            ids[i] = rings[i].getId();
+        }
+    }
+
+    boolean hasRingIds(int[] ids) {
+        for (int i = 0; i < rings.length; i++) {
+            if (rings[i].getId() != ids[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public int getHealth() {
@@ -0,0 +1,114 @@
+package model;
+
+/**
+ * Plays a recorded game again from its inputs (see GameEngine.setInputRecorder).
+ * The engine is rebuilt from the BEGIN input and then given each later input in order.
+ * Its clock never looks at the wall: it hands out the readings recorded with the input
+ * being replayed, so fill timing and everything else comes out exactly as it did live,
+ * at full speed. Register observers on getEngine() to see the replayed events.
+ *
+ * A replay that goes off track (a different draw from the random source, or a different
+ * number of clock reads than recorded) throws IllegalStateException. Like the engine, a
+ * replayer belongs to one thread.
+ */
+public class Replayer {
+    private final ReplayClock clock;
+    private final GameEngine engine;
+    private long inputCount;
+
+    public Replayer(GameInput begin) {
+        this(begin, new StatsTracker());
+    }
+
+    public Replayer(GameInput begin, StatsTracker stats) {
+        if (begin.getKind() != GameInput.Kind.BEGIN) {
+            throw new IllegalArgumentException("A replay starts with BEGIN, not " + begin.getKind());
+        }
+        int boardSize = begin.getArgument(1);
+        Board.Factory boardFactory = switch (begin.getArgument(0)) {
+            case GameInput.GAME_BOARD -> random -> new GameBoard(random, boardSize);
+            case GameInput.BIT_BOARD -> random -> new BitBoard(random, boardSize);
+            default -> throw new IllegalArgumentException("Unknown board kind: " + begin.getArgument(0));
+        };
+        this.clock = new ReplayClock();
+        clock.load(begin); // the engine reads it for the first fill's start
+        this.engine = new GameEngine(begin.getSeed(), boardFactory, clock, stats);
+        engine.setReuseEvents(true);
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    // Inputs replayed so far, BEGIN not included
+    public long getInputCount() {
+        return inputCount;
+    }
+
+    public void apply(GameInput input) {
+        clock.load(input);
+        switch (input.getKind()) {
+            case NEW_MATCH -> engine.startNewMatch();
+            case SUM -> engine.processSum(input.getArgument(0));
+            case LOW_HEALTH -> engine.setCheatLowHealth(input.getArgument(0) != 0);
+            case HIGH_HEALTH -> engine.setCheatHighHealth(input.getArgument(0) != 0);
+            case EQUIP_WEAPON -> engine.equipPlayerWeapon(input.getArgument(0));
+            case EQUIP_RINGS -> engine.equipPlayerRings(input.getArgument(0), input.getArgument(1),
+                    input.getArgument(2));
+            case MAX_VALUE -> engine.setMaxValue(input.getArgument(0));
+            case PRIZE_KIND -> expect(input, engine.nextPrizeIsWeapon() ? 1 : 0);
+            case RANDOM_WEAPON -> expect(input, engine.getRandomWeapon().getId());
+            case RANDOM_RING -> expect(input, engine.getRandomRing().getId());
+            case SET_WEAPON -> engine.setPlayerWeapon(input.getArgument(0));
+            case SET_RINGS -> engine.setPlayerRings(input.getArgument(0), input.getArgument(1),
+                    input.getArgument(2));
+            case BEGIN -> throw new IllegalArgumentException("BEGIN in the middle of a game");
+        }
+        if (clock.remaining() != 0) {
+            throw new IllegalStateException("Replay diverged at input " + inputCount + " (" + input + "): "
+                    + (clock.remaining() > 0 ? clock.remaining() + " recorded clock reads left over"
+                            : -clock.remaining() + " clock reads more than recorded"));
+        }
+        inputCount++;
+    }
+
+    private void expect(GameInput input, int drawn) {
+        if (drawn != input.getArgument(0)) {
+            throw new IllegalStateException("Replay diverged at input " + inputCount + " (" + input + "): drew "
+                    + drawn);
+        }
+    }
+
+    // Hands out the clock reads of one input in order, then keeps repeating the last one
+    private static class ReplayClock implements GameClock {
+        private long[] reads = new long[4];
+        private int count;
+        private int next;
+        private long now;
+
+        void load(GameInput input) {
+            count = input.getClockReadCount();
+            if (count > reads.length) {
+                reads = new long[Math.max(count, reads.length * 2)];
+            }
+            for (int i = 0; i < count; i++) {
+                reads[i] = input.getClockRead(i);
+            }
+            next = 0;
+        }
+
+        // Reads not handed out yet, or minus the reads made past the recorded ones
+        int remaining() {
+            return count - next;
+        }
+
+        @Override
+        public long nanoTime() {
+            if (next < count) {
+                now = reads[next];
+            }
+            next++;
+            return now;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package model;
+
+import model.ring.Ring;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Precomputed ring phase of an attack for one ring loadout: for every strength below
+ * STRENGTH_LIMIT, which rings activate (bit i for ring slot i) and the combined damage
+ * multiplier of those rings. Looking up an attack is one read of the mask array plus
+ * one read of the per-mask multiplier, instead of three activates() calls.
+ * Multipliers are multiplied in slot order, exactly as Player used to, so damage is
+ * unchanged. Strengths outside the table (very large boards or raised maximum values)
+ * are evaluated directly.
+ *
+ * Tables are immutable. Loadouts made of registered rings share one table per
+ * combination of ring ids, so a new Player (one per match) does not rebuild anything.
+ */
+final class RingTable {
+    static final int STRENGTH_LIMIT = 4096;
+    private static final int SLOTS = 3;
+    private static final AtomicReferenceArray<RingTable> SHARED = new AtomicReferenceArray<>(
+            EquipmentRegistry.RING_COUNT * EquipmentRegistry.RING_COUNT * EquipmentRegistry.RING_COUNT);
+
+    private final Ring[] rings;
+    private final byte[] activeMasks;   // by strength
+    private final double[] multipliers; // by active mask
+
+    private RingTable(Ring[] rings) {
+        if (rings.length > Byte.SIZE - 1) {
+            throw new IllegalArgumentException("At most " + (Byte.SIZE - 1) + " rings are supported");
+        }
+        this.rings = rings.clone();
+        this.activeMasks = new byte[STRENGTH_LIMIT];
+        for (int strength = 0; strength < STRENGTH_LIMIT; strength++) {
+            activeMasks[strength] = (byte) evaluate(strength);
+        }
+        this.multipliers = new double[1 << rings.length];
+        for (int mask = 0; mask < multipliers.length; mask++) {
+            double multiplier = 1.0;
+            for (int slot = 0; slot < rings.length; slot++) {
+                if ((mask >>> slot & 1) != 0) {
+                    multiplier *= rings[slot].getDamageMultiplier();
+                }
+            }
+            multipliers[mask] = multiplier;
+        }
+    }
+
+    static RingTable forRings(Ring[] rings) {
+        int key = sharedKey(rings);
+        if (key < 0) {
+            return new RingTable(rings);
+        }
+        RingTable table = SHARED.get(key);
+        if (table == null) {
+            table = new RingTable(rings);
+            // Two threads may both build it; either result is equivalent
+            SHARED.compareAndSet(key, null, table);
+        }
+        return table;
+    }
+
+    // Index into SHARED for three registered rings, or -1 for anything else
+    private static int sharedKey(Ring[] rings) {
+        if (rings.length != SLOTS) {
+            return -1;
+        }
+        int key = 0;
+        for (Ring ring : rings) {
+            int id = ring.getId();
+            if (id < 0 || id >= EquipmentRegistry.RING_COUNT || EquipmentRegistry.getRing(id) != ring) {
+                return -1;
+            }
+            key = key * EquipmentRegistry.RING_COUNT + id;
+        }
+        return key;
+    }
+
+    // Bit i is set when the ring in slot i activates at this strength
+    int activeMask(int strength) {
+        if (strength >= 0 && strength < STRENGTH_LIMIT) {
+            return activeMasks[strength];
+        }
+        return evaluate(strength);
+    }
+
+    // Combined multiplier of the rings in the mask
+    double multiplier(int activeMask) {
+        return multipliers[activeMask];
+    }
+
+    private int evaluate(int strength) {
+        int mask = 0;
+        for (int slot = 0; slot < rings.length; slot++) {
+            if (rings[slot].activates(strength)) {
+                mask |= 1 << slot;
+            }
+        }
+        return mask;
+    }
+}
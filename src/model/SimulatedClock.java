@@ -0,0 +1,33 @@
+package model;
+
+/**
+ * Clock that only moves when told to. Lets a simulation decide how long each
+ * turn "took" without actually waiting.
+ */
+public class SimulatedClock implements GameClock {
+    private long now;
+
+    public SimulatedClock() {
+        this(0);
+    }
+
+    public SimulatedClock(long startNanos) {
+        this.now = startNanos;
+    }
+
+    @Override
+    public long nanoTime() {
+        return now;
+    }
+
+    public void advance(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("Time cannot go backwards");
+        }
+        now += nanos;
+    }
+
+    public void advanceMillis(long millis) {
+        advance(millis * 1_000_000L);
+    }
+}
@@ -1,28 +1,51 @@
 package model;
 
-import java.util.HashMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Tracks game statistics using the Observer pattern.
+ * Counts are longs so long simulation runs cannot overflow them. Not thread-safe;
+ * ConcurrentStatsTracker can be shared by engines on different threads. The two differ
+ * only in their Counters, one per statistic slot: plain longs here, LongAdders there.
  */
 public class StatsTracker implements GameObserver {
-    private Map<String, Integer> weaponActivations;
-    private Map<String, Integer> ringActivations;
-    private int matchesWon;
-    private int matchesLost;
-    private int totalDamageDone;
-    private int totalDamageReceived;
-    private int fillsCompleted;
+    // The only events that change the statistics
+    public static final Set<GameEvent.EventType> OBSERVED_EVENTS = EnumSet.of(
+            GameEvent.EventType.EQUIPMENT_ACTIVATED,
+            GameEvent.EventType.MATCH_WON,
+            GameEvent.EventType.MATCH_LOST,
+            GameEvent.EventType.CHARACTER_DAMAGED,
+            GameEvent.EventType.FILL_COMPLETED);
+
+    // Counter slots: weapon activations by EquipmentRegistry id, then ring activations,
+    // then the match totals
+    private static final int RING_SLOTS = EquipmentRegistry.WEAPON_COUNT;
+    private static final int MATCHES_WON = RING_SLOTS + EquipmentRegistry.RING_COUNT;
+    private static final int MATCHES_LOST = MATCHES_WON + 1;
+    private static final int DAMAGE_DONE = MATCHES_WON + 2;
+    private static final int DAMAGE_RECEIVED = MATCHES_WON + 3;
+    private static final int FILLS_COMPLETED = MATCHES_WON + 4;
+    static final int SLOT_COUNT = MATCHES_WON + 5;
+
+    // Where a tracker keeps its counts, one counter per slot
+    interface Counters {
+        void add(int slot, long amount);
+
+        long get(int slot);
+    }
+
+    private final Counters counters;
 
     public StatsTracker() {
-        this.weaponActivations = new HashMap<>();
-        this.ringActivations = new HashMap<>();
-        this.matchesWon = 0;
-        this.matchesLost = 0;
-        this.totalDamageDone = 0;
-        this.totalDamageReceived = 0;
-        this.fillsCompleted = 0;
+        this(new LongCounters());
+    }
+
+    StatsTracker(Counters counters) {
+        this.counters = counters;
     }
 
     @Override
@@ -30,86 +53,131 @@ public class StatsTracker implements GameObserver {
         switch (event.getType()) {
             case EQUIPMENT_ACTIVATED:
                 EquipmentActivationData data = (EquipmentActivationData) event.getData();
-                if (data.isWeapon) {
-                    weaponActivations.put(data.name, weaponActivations.getOrDefault(data.name, 0) + 1);
-                } else {
-                    ringActivations.put(data.name, ringActivations.getOrDefault(data.name, 0) + 1);
-                }
+                counters.add(data.isWeapon ? Objects.checkIndex(data.id, EquipmentRegistry.WEAPON_COUNT)
+                        : RING_SLOTS + Objects.checkIndex(data.id, EquipmentRegistry.RING_COUNT), 1);
                 break;
             case MATCH_WON:
-                matchesWon++;
+                counters.add(MATCHES_WON, 1);
                 break;
             case MATCH_LOST:
-                matchesLost++;
+                counters.add(MATCHES_LOST, 1);
                 break;
             case CHARACTER_DAMAGED:
                 DamageData damageData = (DamageData) event.getData();
-                if (damageData.isPlayer) {
-                    totalDamageReceived += damageData.amount;
-                } else {
-                    totalDamageDone += damageData.amount;
-                }
+                counters.add(damageData.isPlayer ? DAMAGE_RECEIVED : DAMAGE_DONE, damageData.amount);
                 break;
             case FILL_COMPLETED:
-                fillsCompleted++;
+                counters.add(FILLS_COMPLETED, 1);
                 break;
-            case FILL_STARTED:
-            case CELL_ADDED_TO_FILL:
-            case ATTACK_PERFORMED:
-            case CHARACTER_KILLED:
-            case TURN_FAILED:
-            case OPPONENT_ATTACKED:
-                // These events don't need to be tracked in statistics
+            default:
+                // Not subscribed to (see OBSERVED_EVENTS)
                 break;
         }
     }
 
-    public Map<String, Integer> getWeaponActivations() {
-        return new HashMap<>(weaponActivations);
+    // Adds another tracker's counts into this one (used to combine parallel simulation shards)
+    public void merge(StatsTracker other) {
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            counters.add(slot, other.counters.get(slot));
+        }
+    }
+
+    public long getWeaponActivationCount(int weaponId) {
+        return counters.get(Objects.checkIndex(weaponId, EquipmentRegistry.WEAPON_COUNT));
+    }
+
+    public long getRingActivationCount(int ringId) {
+        return counters.get(RING_SLOTS + Objects.checkIndex(ringId, EquipmentRegistry.RING_COUNT));
+    }
+
+    // Name -> count of every weapon activated at least once, in id order
+    public Map<String, Long> getWeaponActivations() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int id = 0; id < EquipmentRegistry.WEAPON_COUNT; id++) {
+            long count = getWeaponActivationCount(id);
+            if (count > 0) {
+                counts.put(EquipmentRegistry.weaponName(id), count);
+            }
+        }
+        return counts;
+    }
+
+    public Map<String, Long> getRingActivations() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int id = 0; id < EquipmentRegistry.RING_COUNT; id++) {
+            long count = getRingActivationCount(id);
+            if (count > 0) {
+                counts.put(EquipmentRegistry.ringName(id), count);
+            }
+        }
+        return counts;
     }
 
-    public Map<String, Integer> getRingActivations() {
-        return new HashMap<>(ringActivations);
+    public long getMatchesWon() {
+        return counters.get(MATCHES_WON);
     }
 
-    public int getMatchesWon() {
-        return matchesWon;
+    public long getMatchesLost() {
+        return counters.get(MATCHES_LOST);
     }
 
-    public int getMatchesLost() {
-        return matchesLost;
+    public long getTotalDamageDone() {
+        return counters.get(DAMAGE_DONE);
     }
 
-    public int getTotalDamageDone() {
-        return totalDamageDone;
+    public long getTotalDamageReceived() {
+        return counters.get(DAMAGE_RECEIVED);
     }
 
-    public int getTotalDamageReceived() {
-        return totalDamageReceived;
+    public long getFillsCompleted() {
+        return counters.get(FILLS_COMPLETED);
     }
 
-    public int getFillsCompleted() {
-        return fillsCompleted;
+    private static final class LongCounters implements Counters {
+        private final long[] counts = new long[SLOT_COUNT];
+
+        @Override
+        public void add(int slot, long amount) {
+            counts[slot] += amount;
+        }
+
+        @Override
+        public long get(int slot) {
+            return counts[slot];
+        }
     }
 
     // Helper classes for event data
-    public static class EquipmentActivationData {
-        public final String name;
-        public final boolean isWeapon;
+    // Overwritten in place by an engine that reuses events (see GameEvent)
+    public static final class EquipmentActivationData {
+        public int id; // EquipmentRegistry weapon or ring id
+        public String name;
+        public boolean isWeapon;
+
+        public EquipmentActivationData(int id, String name, boolean isWeapon) {
+            set(id, name, isWeapon);
+        }
 
-        public EquipmentActivationData(String name, boolean isWeapon) {
+        EquipmentActivationData set(int id, String name, boolean isWeapon) {
+            this.id = id;
             this.name = name;
             this.isWeapon = isWeapon;
+            return this;
         }
     }
 
-    public static class DamageData {
-        public final int amount;
-        public final boolean isPlayer;
+    public static final class DamageData {
+        public int amount;
+        public boolean isPlayer;
 
         public DamageData(int amount, boolean isPlayer) {
+            set(amount, isPlayer);
+        }
+
+        DamageData set(int amount, boolean isPlayer) {
             this.amount = amount;
             this.isPlayer = isPlayer;
+            return this;
         }
     }
 }
@@ -1,5 +1,7 @@
 package model.ring;
 
+import model.EquipmentRegistry;
+
 public class BigOneRing implements Ring {
     @Override
     public boolean activates(int strength) {
@@ -16,6 +18,11 @@ public class BigOneRing implements Ring {
         return "The Big One";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.BIG_ONE_RING;
+    }
+    
     @Override
     public String getDescription() {
         return "50% damage bonus if strength >= 160";
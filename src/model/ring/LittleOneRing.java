@@ -1,5 +1,7 @@
 package model.ring;
 
+import model.EquipmentRegistry;
+
 public class LittleOneRing implements Ring {
     @Override
     public boolean activates(int strength) {
@@ -16,6 +18,11 @@ public class LittleOneRing implements Ring {
         return "The Little One";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.LITTLE_ONE_RING;
+    }
+    
     @Override
     public String getDescription() {
         return "50% damage bonus if strength <= 90";
@@ -1,5 +1,7 @@
 package model.ring;
 
+import model.EquipmentRegistry;
+
 public class MehRing implements Ring {
     @Override
     public boolean activates(int strength) {
@@ -16,6 +18,11 @@ public class MehRing implements Ring {
         return "Ring of Meh";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.MEH_RING;
+    }
+    
     @Override
     public String getDescription() {
         return "10% damage bonus if strength is a multiple of 5";
@@ -1,5 +1,7 @@
 package model.ring;
 
+import model.EquipmentRegistry;
+
 /**
  * Null Object pattern implementation for empty ring slot.
  */
@@ -19,6 +21,11 @@ public class NoRing implements Ring {
         return "None";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.NO_RING;
+    }
+    
     @Override
     public String getDescription() {
         return "No ring equipped";
@@ -1,6 +1,11 @@
 package model.ring;
 
+import model.EquipmentRegistry;
+
 public class PrimeDirectiveRing implements Ring {
+    private static final int SIEVE_LIMIT = 1 << 16;
+    private static final boolean[] COMPOSITE = sieve(SIEVE_LIMIT); // 0 and 1 marked too
+
     @Override
     public boolean activates(int strength) {
         return isPrime(strength);
@@ -16,12 +21,33 @@ public class PrimeDirectiveRing implements Ring {
         return "The Prime Directive";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.PRIME_DIRECTIVE_RING;
+    }
+    
     @Override
     public String getDescription() {
         return "100% damage bonus if strength is prime";
     }
     
+    // Sieve of Eratosthenes, built once
+    private static boolean[] sieve(int limit) {
+        boolean[] composite = new boolean[limit];
+        composite[0] = true;
+        composite[1] = true;
+        for (int i = 2; i * i < limit; i++) {
+            if (!composite[i]) {
+                for (int j = i * i; j < limit; j += i) {
+                    composite[j] = true;
+                }
+            }
+        }
+        return composite;
+    }
+
     private boolean isPrime(int n) {
+        if (n >= 0 && n < SIEVE_LIMIT) return !COMPOSITE[n];
         if (n < 2) return false;
         if (n == 2) return true;
         if (n % 2 == 0) return false;
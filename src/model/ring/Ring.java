@@ -12,5 +12,8 @@ public interface Ring {
 
     String getName();
 
+    // Stable id from EquipmentRegistry, also the number used by the cheat command
+    int getId();
+
     String getDescription();
 }
@@ -1,5 +1,7 @@
 package model.ring;
 
+import model.EquipmentRegistry;
+
 public class TenacityRing implements Ring {
     @Override
     public boolean activates(int strength) {
@@ -16,6 +18,11 @@ public class TenacityRing implements Ring {
         return "Ring of Ten-acity";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.TENACITY_RING;
+    }
+    
     @Override
     public String getDescription() {
         return "50% damage bonus if strength is a multiple of 10";
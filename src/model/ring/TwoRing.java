@@ -1,5 +1,7 @@
 package model.ring;
 
+import model.EquipmentRegistry;
+
 public class TwoRing implements Ring {
     @Override
     public boolean activates(int strength) {
@@ -16,6 +18,11 @@ public class TwoRing implements Ring {
         return "The Two Ring";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.TWO_RING;
+    }
+    
     @Override
     public String getDescription() {
         return "1000% damage bonus if strength is a power of 2";
@@ -0,0 +1,78 @@
+package model.weapon;
+
+import java.util.Arrays;
+
+/**
+ * Reusable list of (target index, damage multiplier) pairs plus a description, filled
+ * in by Weapon.applyEffect. Player keeps one and clears it before every attack, so
+ * resolving a weapon effect allocates nothing once the buffer has grown to fit.
+ */
+public class AttackBuffer {
+    private int[] targets;
+    private double[] multipliers;
+    private int size;
+    private String description;
+
+    public AttackBuffer() {
+        this.targets = new int[4];
+        this.multipliers = new double[4];
+        this.size = 0;
+        this.description = "";
+    }
+
+    public void clear() {
+        size = 0;
+        description = "";
+    }
+
+    public void add(int targetIndex, double multiplier) {
+        if (size == targets.length) {
+            targets = Arrays.copyOf(targets, size * 2);
+            multipliers = Arrays.copyOf(multipliers, size * 2);
+        }
+        targets[size] = targetIndex;
+        multipliers[size] = multiplier;
+        size++;
+    }
+
+    // Appends every target of the result and takes over its description
+    public void addAll(Weapon.AttackResult result) {
+        for (int i = 0; i < result.targetIndices.length; i++) {
+            add(result.targetIndices[i], result.damageMultipliers[i]);
+        }
+        description = result.description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getTarget(int i) {
+        checkIndex(i);
+        return targets[i];
+    }
+
+    public double getMultiplier(int i) {
+        checkIndex(i);
+        return multipliers[i];
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    // Copy of the contents in the AttackResult form
+    public Weapon.AttackResult toAttackResult() {
+        return new Weapon.AttackResult(Arrays.copyOf(targets, size), Arrays.copyOf(multipliers, size), description);
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("No target " + i + " in a buffer of " + size);
+        }
+    }
+}
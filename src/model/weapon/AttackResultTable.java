@@ -0,0 +1,60 @@
+package model.weapon;
+
+import model.Opponent;
+
+/**
+ * Precomputed results of a deterministic weapon effect, which depends only on the
+ * targeted opponent and which opponents are still alive. Every combination for up to
+ * MAX_OPPONENTS opponents is built once, so applying the effect is a lookup of a shared
+ * AttackResult, copied into the caller's AttackBuffer; the shared results never leave
+ * the package. Larger opponent groups (up to 64) are resolved on each call.
+ */
+final class AttackResultTable {
+    static final int MAX_OPPONENTS = 4;
+
+    interface Rule {
+        // Bit i of aliveMask is set when opponent i is alive
+        Weapon.AttackResult resolve(int targetIndex, long aliveMask, int opponentCount);
+    }
+
+    private final Rule rule;
+    private final Weapon.AttackResult[][][] results; // [opponentCount][targetIndex][aliveMask]
+
+    AttackResultTable(Rule rule) {
+        this.rule = rule;
+        this.results = new Weapon.AttackResult[MAX_OPPONENTS + 1][][];
+        for (int count = 1; count <= MAX_OPPONENTS; count++) {
+            results[count] = new Weapon.AttackResult[count][1 << count];
+            for (int target = 0; target < count; target++) {
+                for (int mask = 0; mask < 1 << count; mask++) {
+                    results[count][target][mask] = rule.resolve(target, mask, count);
+                }
+            }
+        }
+    }
+
+    Weapon.AttackResult lookup(Opponent[] opponents, int targetIndex) {
+        int count = opponents.length;
+        if (count > Long.SIZE) {
+            throw new IllegalArgumentException("At most " + Long.SIZE + " opponents are supported");
+        }
+        if (count > MAX_OPPONENTS) {
+            return rule.resolve(targetIndex, aliveMask(opponents), count);
+        }
+        return results[count][targetIndex][(int) aliveMask(opponents)];
+    }
+
+    private static long aliveMask(Opponent[] opponents) {
+        long mask = 0;
+        for (int i = 0; i < opponents.length; i++) {
+            if (opponents[i].isAlive()) {
+                mask |= 1L << i;
+            }
+        }
+        return mask;
+    }
+
+    static boolean isAlive(long aliveMask, int index) {
+        return (aliveMask >>> index & 1) != 0;
+    }
+}
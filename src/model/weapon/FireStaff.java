@@ -1,11 +1,14 @@
 package model.weapon;
 
+import model.EquipmentRegistry;
 import model.Fill;
 import model.Opponent;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
 
 public class FireStaff implements Weapon {
+    private static final AttackResultTable RESULTS = new AttackResultTable(FireStaff::resolve);
+
     @Override
     public boolean activates(Fill fill) {
         return fill.getCellCount() >= 15;
@@ -16,38 +19,46 @@ public class FireStaff implements Weapon {
         return "Fire Staff";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.FIRE_STAFF;
+    }
+    
     @Override
     public String getDescription() {
         return "Hits primary target and adjacent opponents if cell count >= 15";
     }
     
     @Override
-    public AttackResult applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex) {
-        List<Integer> targets = new ArrayList<>();
-        List<Double> multipliers = new ArrayList<>();
-        
+    public void applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex,
+            RandomGenerator random, AttackBuffer buffer) {
+        buffer.addAll(RESULTS.lookup(opponents, targetIndex));
+    }
+
+    private static AttackResult resolve(int targetIndex, long aliveMask, int opponentCount) {
+        int[] targets = new int[3];
+        double[] multipliers = new double[3];
+        int n = 0;
+
         // Primary target
-        if (opponents[targetIndex].isAlive()) {
-            targets.add(targetIndex);
-            multipliers.add(1.0); // 100% damage
+        if (AttackResultTable.isAlive(aliveMask, targetIndex)) {
+            targets[n] = targetIndex;
+            multipliers[n++] = 1.0; // 100% damage
         }
-        
+
         // Left side (if exists)
-        if (targetIndex > 0 && opponents[targetIndex - 1].isAlive()) {
-            targets.add(targetIndex - 1);
-            multipliers.add(0.5); // 50% damage
+        if (targetIndex > 0 && AttackResultTable.isAlive(aliveMask, targetIndex - 1)) {
+            targets[n] = targetIndex - 1;
+            multipliers[n++] = 0.5; // 50% damage
         }
-        
+
         // Right side (if exists)
-        if (targetIndex < opponents.length - 1 && opponents[targetIndex + 1].isAlive()) {
-            targets.add(targetIndex + 1);
-            multipliers.add(0.5); // 50% damage
+        if (targetIndex < opponentCount - 1 && AttackResultTable.isAlive(aliveMask, targetIndex + 1)) {
+            targets[n] = targetIndex + 1;
+            multipliers[n++] = 0.5; // 50% damage
         }
-        
-        int[] targetArray = targets.stream().mapToInt(i -> i).toArray();
-        double[] multiplierArray = multipliers.stream().mapToDouble(d -> d).toArray();
-        
-        return new AttackResult(targetArray, multiplierArray, "Fire Staff hits primary target and adjacent opponents.");
+
+        return new AttackResult(Arrays.copyOf(targets, n), Arrays.copyOf(multipliers, n),
+                "Fire Staff hits primary target and adjacent opponents.");
     }
 }
-
@@ -1,12 +1,15 @@
 package model.weapon;
 
+import model.EquipmentRegistry;
 import model.Fill;
 import model.Opponent;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
 
 public class FrostBow implements Weapon {
+    private static final AttackResultTable RESULTS = new AttackResultTable(FrostBow::resolve);
+
     @Override
     public boolean activates(Fill fill) {
         return fill.isAscending();
@@ -17,28 +20,34 @@ public class FrostBow implements Weapon {
         return "Frost Bow";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.FROST_BOW;
+    }
+    
     @Override
     public String getDescription() {
         return "Hits all opponents if fill values are in ascending order";
     }
     
     @Override
-    public AttackResult applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex) {
-        List<Integer> targets = new ArrayList<>();
-        List<Double> multipliers = new ArrayList<>();
-        
-        // Hit all opponents
-        for (int i = 0; i < opponents.length; i++) {
-            if (opponents[i].isAlive()) {
-                targets.add(i);
-                multipliers.add(1.0); // 100% damage
+    public void applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex,
+            RandomGenerator random, AttackBuffer buffer) {
+        buffer.addAll(RESULTS.lookup(opponents, targetIndex));
+    }
+
+    // Hit all opponents
+    private static AttackResult resolve(int targetIndex, long aliveMask, int opponentCount) {
+        int[] targets = new int[opponentCount];
+        double[] multipliers = new double[opponentCount];
+        int n = 0;
+        for (int i = 0; i < opponentCount; i++) {
+            if (AttackResultTable.isAlive(aliveMask, i)) {
+                targets[n] = i;
+                multipliers[n++] = 1.0; // 100% damage
             }
         }
-        
-        int[] targetArray = targets.stream().mapToInt(i -> i).toArray();
-        double[] multiplierArray = multipliers.stream().mapToDouble(d -> d).toArray();
-        
-        return new AttackResult(targetArray, multiplierArray, "Frost Bow hits all opponents.");
+        return new AttackResult(Arrays.copyOf(targets, n), Arrays.copyOf(multipliers, n),
+                "Frost Bow hits all opponents.");
     }
 }
-
@@ -1,12 +1,18 @@
 package model.weapon;
 
+import model.EquipmentRegistry;
 import model.Fill;
 import model.Opponent;
 
+import java.util.random.RandomGenerator;
+
 /**
  * Null Object pattern implementation for when player has no weapon.
  */
 public class NoWeapon implements Weapon {
+    private static final AttackResultTable RESULTS = new AttackResultTable(
+            (targetIndex, aliveMask, opponentCount) -> new AttackResult(new int[]{targetIndex}, new double[]{1.0}, ""));
+
     @Override
     public boolean activates(Fill fill) {
         return false;
@@ -17,15 +23,21 @@ public class NoWeapon implements Weapon {
         return "None";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.NO_WEAPON;
+    }
+    
     @Override
     public String getDescription() {
         return "No weapon equipped";
     }
     
     @Override
-    public AttackResult applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex) {
+    public void applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex,
+            RandomGenerator random, AttackBuffer buffer) {
         // No weapon, just target the selected character
-        return new AttackResult(new int[]{targetIndex}, new double[]{1.0}, "");
+        buffer.addAll(RESULTS.lookup(opponents, targetIndex));
     }
 }
 
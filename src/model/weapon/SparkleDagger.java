@@ -1,10 +1,9 @@
 package model.weapon;
 
+import model.EquipmentRegistry;
 import model.Fill;
 import model.Opponent;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
 public class SparkleDagger implements Weapon {
     @Override
@@ -17,39 +16,29 @@ public class SparkleDagger implements Weapon {
         return "Sparkle Dagger";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.SPARKLE_DAGGER;
+    }
+    
     @Override
     public String getDescription() {
         return "Targets an additional random opponent at 50% damage if fill completed in < 20 seconds";
     }
     
     @Override
-    public AttackResult applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex) {
-        List<Integer> targets = new ArrayList<>();
-        List<Double> multipliers = new ArrayList<>();
-        
+    public void applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex,
+            RandomGenerator random, AttackBuffer buffer) {
         // Normal attack
-        targets.add(targetIndex);
-        multipliers.add(1.0);
+        buffer.add(targetIndex, 1.0);
         
         // Additional random target at 50%
-        Random random = new Random();
-        List<Integer> aliveIndices = new ArrayList<>();
-        for (int i = 0; i < opponents.length; i++) {
-            if (opponents[i].isAlive()) {
-                aliveIndices.add(i);
-            }
-        }
+        int aliveCount = Targets.countAlive(opponents);
         
-        if (!aliveIndices.isEmpty()) {
-            int randomTarget = aliveIndices.get(random.nextInt(aliveIndices.size()));
-            targets.add(randomTarget);
-            multipliers.add(0.5); // 50% damage
+        if (aliveCount > 0) {
+            buffer.add(Targets.nthAlive(opponents, random.nextInt(aliveCount)), 0.5); // 50% damage
         }
         
-        int[] targetArray = targets.stream().mapToInt(i -> i).toArray();
-        double[] multiplierArray = multipliers.stream().mapToDouble(d -> d).toArray();
-        
-        return new AttackResult(targetArray, multiplierArray, "Sparkle Dagger targets an additional random opponent.");
+        buffer.setDescription("Sparkle Dagger targets an additional random opponent.");
     }
 }
-
@@ -1,12 +1,15 @@
 package model.weapon;
 
+import model.EquipmentRegistry;
 import model.Fill;
 import model.Opponent;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
 
 public class StoneHammer implements Weapon {
+    private static final AttackResultTable RESULTS = new AttackResultTable(StoneHammer::resolve);
+
     @Override
     public boolean activates(Fill fill) {
         return fill.getCellCount() >= 10;
@@ -17,28 +20,34 @@ public class StoneHammer implements Weapon {
         return "Stone Hammer";
     }
     
+    @Override
+    public int getId() {
+        return EquipmentRegistry.STONE_HAMMER;
+    }
+    
     @Override
     public String getDescription() {
         return "Hits all opponents at 80% damage if cell count >= 10";
     }
     
     @Override
-    public AttackResult applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex) {
-        List<Integer> targets = new ArrayList<>();
-        List<Double> multipliers = new ArrayList<>();
-        
-        // Hit all opponents at 80%
-        for (int i = 0; i < opponents.length; i++) {
-            if (opponents[i].isAlive()) {
-                targets.add(i);
-                multipliers.add(0.8); // 80% damage
+    public void applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex,
+            RandomGenerator random, AttackBuffer buffer) {
+        buffer.addAll(RESULTS.lookup(opponents, targetIndex));
+    }
+
+    // Hit all opponents at 80%
+    private static AttackResult resolve(int targetIndex, long aliveMask, int opponentCount) {
+        int[] targets = new int[opponentCount];
+        double[] multipliers = new double[opponentCount];
+        int n = 0;
+        for (int i = 0; i < opponentCount; i++) {
+            if (AttackResultTable.isAlive(aliveMask, i)) {
+                targets[n] = i;
+                multipliers[n++] = 0.8; // 80% damage
             }
         }
-        
-        int[] targetArray = targets.stream().mapToInt(i -> i).toArray();
-        double[] multiplierArray = multipliers.stream().mapToDouble(d -> d).toArray();
-        
-        return new AttackResult(targetArray, multiplierArray, "Stone Hammer hits all opponents.");
+        return new AttackResult(Arrays.copyOf(targets, n), Arrays.copyOf(multipliers, n),
+                "Stone Hammer hits all opponents.");
     }
 }
-
@@ -0,0 +1,31 @@
+package model.weapon;
+
+import model.Opponent;
+
+/**
+ * Target picking shared by the weapons that hit an extra random opponent.
+ */
+final class Targets {
+    private Targets() {
+    }
+
+    static int countAlive(Opponent[] opponents) {
+        int aliveCount = 0;
+        for (Opponent opponent : opponents) {
+            if (opponent.isAlive()) {
+                aliveCount++;
+            }
+        }
+        return aliveCount;
+    }
+
+    // Index of the n-th (0-based) living opponent
+    static int nthAlive(Opponent[] opponents, int n) {
+        for (int i = 0; i < opponents.length; i++) {
+            if (opponents[i].isAlive() && n-- == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Not enough living opponents");
+    }
+}
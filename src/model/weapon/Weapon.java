@@ -3,6 +3,8 @@ package model.weapon;
 import model.Fill;
 import model.Opponent;
 
+import java.util.random.RandomGenerator;
+
 /**
  * Base interface for weapons.
  * Uses Null Object pattern - NoWeapon implements this.
@@ -12,14 +14,28 @@ public interface Weapon {
     boolean activates(Fill fill);
 
     String getName();
+
+    // Stable id from EquipmentRegistry, also the number used by the cheat command
+    int getId();
     
     String getDescription();
     
-    // Applies weapon effects to determine attack targets and damage multipliers.
-    // Returns an AttackResult describing the effects.
-    AttackResult applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex);
+    // Applies weapon effects to determine attack targets and damage multipliers,
+    // appending them to the (cleared) buffer and setting its description.
+    // Weapons with random targets draw from the game's random source.
+    void applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex,
+            RandomGenerator random, AttackBuffer buffer);
+
+    // Same effect returned as a new AttackResult; adapter over the buffer version
+    default AttackResult applyEffect(Fill fill, Opponent[] opponents, int baseDamage, int targetIndex,
+            RandomGenerator random) {
+        AttackBuffer buffer = new AttackBuffer();
+        applyEffect(fill, opponents, baseDamage, targetIndex, random, buffer);
+        return buffer.toAttackResult();
+    }
     
     // Attack result describing weapon effects.
+    // The adapter above returns a new one on every call, so callers may keep or change it.
     class AttackResult {
         public final int[] targetIndices;
         public final double[] damageMultipliers;
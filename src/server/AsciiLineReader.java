@@ -0,0 +1,123 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * Line reader for the line protocol: one byte is one character, bytes outside ASCII
+ * read as '?', and lines end with LF or CRLF. Sends the pending output of the session's
+ * AsciiWriter before each read, so a prompt always reaches the client before the
+ * session waits for the answer.
+ *
+ * It is a BufferedReader only so TextUI can use it like the console's reader. It reads
+ * the socket through its own small buffer, without the 8 KB decode buffer of
+ * InputStreamReader and without taking a monitor, so a session waiting for input parks
+ * its virtual thread instead of pinning a carrier thread.
+ */
+class AsciiLineReader extends BufferedReader {
+    private final InputStream in;
+    private final AsciiWriter pendingOutput;
+    private final byte[] buffer;
+    private final int maxLineLength;
+    private int position;
+    private int limit;
+
+    AsciiLineReader(InputStream in, AsciiWriter pendingOutput, int bufferSize, int maxLineLength) {
+        super(Reader.nullReader(), 1);
+        this.in = in;
+        this.pendingOutput = pendingOutput;
+        this.buffer = new byte[bufferSize];
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        StringBuilder line = null;
+        while (true) {
+            if (position == limit && !fill()) {
+                return line == null || line.isEmpty() ? null : line.toString(); // end of input
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            if (line == null) {
+                line = new StringBuilder(position - start);
+            }
+            append(line, start, position);
+            if (line.length() > maxLineLength) {
+                throw new IOException("Line longer than " + maxLineLength + " characters");
+            }
+            if (position < limit) {
+                position++; // the newline
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return toChar(buffer[position++]);
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        int count = Math.min(length, limit - position);
+        for (int i = 0; i < count; i++) {
+            chars[offset + i] = toChar(buffer[position++]);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return position < limit || in.available() > 0;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // Sends pending output, then waits for more input; false at end of input
+    private boolean fill() throws IOException {
+        pendingOutput.drain();
+        int count = in.read(buffer, 0, buffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+
+    private void append(StringBuilder line, int start, int end) {
+        for (int i = start; i < end; i++) {
+            line.append(toChar(buffer[i]));
+        }
+    }
+
+    private static char toChar(byte b) {
+        return b >= 0 ? (char) b : '?';
+    }
+}
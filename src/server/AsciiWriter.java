@@ -0,0 +1,74 @@
+package server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Writer for the line protocol: characters outside ASCII are sent as '?'.
+ * Nothing is sent from inside the Writer methods, because PrintWriter calls them while
+ * holding a monitor, and a virtual thread that blocks on a socket inside a monitor pins
+ * its carrier thread. Output collects in a buffer (grown for long replies, shrunk again
+ * once sent) until drain() sends it, which AsciiLineReader does before every read.
+ */
+class AsciiWriter extends Writer {
+    private final OutputStream out;
+    private final int initialSize;
+    private byte[] buffer;
+    private int count;
+
+    AsciiWriter(OutputStream out, int initialSize) {
+        this.out = out;
+        this.initialSize = initialSize;
+        this.buffer = new byte[initialSize];
+    }
+
+    @Override
+    public void write(int c) {
+        if (count == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[count++] = c < 0x80 ? (byte) c : (byte) '?';
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            write(chars[offset + i]);
+        }
+    }
+
+    @Override
+    public void write(String text, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            write(text.charAt(offset + i));
+        }
+    }
+
+    // Output is sent by drain()
+    @Override
+    public void flush() {
+    }
+
+    // Sends everything written so far; must not be called while holding a monitor
+    void drain() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            out.flush();
+            count = 0;
+        }
+        if (buffer.length > initialSize) {
+            buffer = new byte[initialSize];
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Free list of equally sized direct buffers. Direct buffers are what a channel writes
+ * from without copying, but they are slow to allocate and freed only by the GC, so
+ * buffers are recycled instead of dropped. Past maxPooled free buffers, released ones
+ * are left to the GC. Not thread-safe: each selector thread owns its pool.
+ */
+final class BufferPool {
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+    BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Invalid buffer size: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    // A cleared buffer, recycled if possible
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.pollFirst();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        if (free.size() < maxPooled) {
+            free.addFirst(buffer); // most recently used first, while it is still in cache
+        }
+    }
+
+    int getFreeCount() {
+        return free.size();
+    }
+}
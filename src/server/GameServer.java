@@ -0,0 +1,183 @@
+package server;
+
+import model.BitBoard;
+import model.GameEngine;
+import model.GameRandom;
+import view.TextUI;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the text game over TCP, one player per connection. The protocol is the console
+ * game itself: the client sends the lines a player would type (sums, gear, stats, hint,
+ * new, cheat ...) and receives what the console would print, prompts included.
+ *
+ * Every connection gets its own GameEngine and TextUI, run on a virtual thread, so a
+ * player waiting to type costs a parked virtual thread rather than a platform thread.
+ * Live sessions are kept in a session table. A session that sends nothing for the idle
+ * timeout is told so and disconnected, and connections over maxSessions are turned away.
+ * Per-session memory is kept small (a BitBoard engine, ASCII streams with buffers of a
+ * few hundred bytes, no solver state between hints) so 100k sessions fit in one JVM, and
+ * the streams never block inside a monitor, so waiting sessions do not pin carriers.
+ * "cheat max" is capped at MAX_CHEAT_VALUE, so one player cannot make its session
+ * (and its hints) work over an arbitrarily wide value range. A virtual thread running
+ * the solver keeps its carrier, so hints get a short budget (HINT_BUDGET_MILLIS) and at
+ * most one per HINT_INTERVAL_MILLIS; pipelined hint lines past that are refused.
+ */
+public class GameServer implements AutoCloseable {
+    private static final int DEFAULT_PORT = 2130;
+    private static final int DEFAULT_MAX_SESSIONS = 100_000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 10 * 60 * 1000;
+    private static final int READ_BUFFER_SIZE = 128;
+    private static final int WRITE_BUFFER_SIZE = 512;
+    private static final int MAX_LINE_LENGTH = 1024;
+    private static final int MAX_CHEAT_VALUE = 1000;
+    private static final long HINT_BUDGET_MILLIS = 5;
+    private static final long HINT_INTERVAL_MILLIS = 1000;
+
+    private final int maxSessions;
+    private final int idleTimeoutMillis;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong nextSessionId = new AtomicLong();
+    private volatile boolean closed;
+
+    // Binds right away; port 0 picks a free port (see getPort)
+    public GameServer(int port, int maxSessions, long idleTimeoutMillis) throws IOException {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Need room for at least one session");
+        }
+        if (idleTimeoutMillis < 1 || idleTimeoutMillis > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid idle timeout: " + idleTimeoutMillis);
+        }
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMillis = (int) idleTimeoutMillis;
+        this.serverSocket = new ServerSocket();
+        serverSocket.bind(new InetSocketAddress(port), 1024);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    // Accepts connections until close() is called
+    public void serve() throws IOException {
+        while (!closed) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (closed) {
+                    return;
+                }
+                throw e;
+            }
+            if (sessions.size() >= maxSessions) {
+                reject(socket);
+                continue;
+            }
+            Session session = new Session(nextSessionId.incrementAndGet(), socket);
+            sessions.put(session.id, session);
+            executor.execute(() -> runSession(session));
+        }
+    }
+
+    // Stops accepting, disconnects every session and waits for their threads to finish
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Session session : sessions.values()) {
+            session.disconnect();
+        }
+        executor.close();
+    }
+
+    private void runSession(Session session) {
+        try (Socket socket = session.socket) {
+            socket.setSoTimeout(idleTimeoutMillis);
+            socket.setTcpNoDelay(true); // prompts are small and wait for an answer
+            AsciiWriter output = new AsciiWriter(socket.getOutputStream(), WRITE_BUFFER_SIZE);
+            PrintWriter out = new PrintWriter(output);
+            BufferedReader in = new AsciiLineReader(socket.getInputStream(), output, READ_BUFFER_SIZE,
+                    MAX_LINE_LENGTH);
+
+            GameEngine engine = new GameEngine(GameRandom.newSeed(), BitBoard::new);
+            engine.setReuseEvents(true); // TextUI prints each event as it arrives
+            TextUI ui = new TextUI(engine, in, out, HINT_BUDGET_MILLIS);
+            ui.setMaxCheatValue(MAX_CHEAT_VALUE);
+            ui.setHintIntervalMillis(HINT_INTERVAL_MILLIS);
+            try {
+                ui.run();
+            } catch (UncheckedIOException e) {
+                if (!(e.getCause() instanceof SocketTimeoutException)) {
+                    return; // the client went away or misbehaved; nothing left to tell it
+                }
+                out.println("\nDisconnected after " + idleTimeoutMillis / 1000 + " s without input.");
+            }
+            output.drain(); // the farewell or timeout message
+        } catch (IOException e) {
+            // the client went away
+        } finally {
+            sessions.remove(session.id);
+        }
+    }
+
+    private static void reject(Socket socket) {
+        try (socket) {
+            socket.getOutputStream().write("Server full, try again later.\n".getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            // the client is gone already
+        }
+    }
+
+    // One connected player
+    private static class Session {
+        private final long id;
+        private final Socket socket;
+
+        Session(long id, Socket socket) {
+            this.id = id;
+            this.socket = socket;
+        }
+
+        // Unblocks the session's read, which then ends the session
+        void disconnect() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+
+    // Usage: GameServer [port] [maxSessions] [idleTimeoutSeconds]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxSessions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_SESSIONS;
+        long idleTimeoutMillis = args.length > 2 ? Long.parseLong(args[2]) * 1000 : DEFAULT_IDLE_TIMEOUT_MILLIS;
+
+        try (GameServer server = new GameServer(port, maxSessions, idleTimeoutMillis)) {
+            System.out.println("Game server listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+}
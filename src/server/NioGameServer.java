@@ -0,0 +1,342 @@
+package server;
+
+import model.BitBoard;
+import model.GameEngine;
+import model.GameRandom;
+import view.Command;
+import view.CommandParser;
+import view.GameSession;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Serves the same line protocol as GameServer from a single selector thread, so a burst
+ * of connections costs channels and small state objects rather than threads.
+ *
+ * Every connection gets its own GameEngine and GameSession. Input is read into one
+ * shared direct buffer and each complete line is parsed in place by CommandParser and
+ * handed to the session; only an unfinished line is copied aside (into a buffer the
+ * connection keeps) until the rest arrives. Lines longer than MAX_LINE_LENGTH end the
+ * connection. Replies are rendered into the connection's OutputQueue of pooled direct
+ * buffers and sent with gathering writes. Once a connection's unsent output passes
+ * MAX_PENDING_OUTPUT, its remaining lines are held back and it is not read again until
+ * the client catches up.
+ *
+ * Sessions run on the selector thread, so everything a session does must be quick;
+ * turns take microseconds, and hints get a short solver budget (HINT_BUDGET_MILLIS)
+ * instead of the console's. A connection gets at most one hint per HINT_INTERVAL_MILLIS
+ * (pipelined hint lines past that are refused without solving), so one client cannot
+ * hold up the others, and "cheat max" is capped at MAX_CHEAT_VALUE as in GameServer.
+ */
+public class NioGameServer implements AutoCloseable {
+    private static final int DEFAULT_PORT = 2131;
+    private static final int DEFAULT_MAX_SESSIONS = 100_000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 10 * 60 * 1000;
+    private static final long HINT_BUDGET_MILLIS = 5;
+    private static final long HINT_INTERVAL_MILLIS = 1000;
+    private static final int MAX_CHEAT_VALUE = 1000;
+    private static final int MAX_LINE_LENGTH = 1024;
+    private static final int READ_BUFFER_SIZE = 4 * MAX_LINE_LENGTH;
+    private static final int OUTPUT_BUFFER_SIZE = 1024;
+    private static final int MAX_POOLED_BUFFERS = 4096;
+    private static final long MAX_PENDING_OUTPUT = 64 * 1024;
+    private static final long SWEEP_INTERVAL_MILLIS = 1000;
+    private static final byte[] SERVER_FULL = "Server full, try again later.\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final int maxSessions;
+    private final long idleTimeoutMillis;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private final BufferPool pool = new BufferPool(OUTPUT_BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final Command command = new Command(); // parsed lines are handled right away
+    private int sessionCount;
+    private long nextSweep;
+    private volatile boolean closed;
+
+    // Binds right away; port 0 picks a free port (see getPort)
+    public NioGameServer(int port, int maxSessions, long idleTimeoutMillis) throws IOException {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Need room for at least one session");
+        }
+        if (idleTimeoutMillis < 1) {
+            throw new IllegalArgumentException("Invalid idle timeout: " + idleTimeoutMillis);
+        }
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    // Only meaningful on the selector thread or after serve() returned
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    // Runs the selector loop on the calling thread until close() is called
+    public void serve() throws IOException {
+        nextSweep = System.currentTimeMillis() + SWEEP_INTERVAL_MILLIS;
+        try {
+            while (!closed) {
+                selector.select(SWEEP_INTERVAL_MILLIS);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        acceptAll();
+                    } else {
+                        serviceConnection(key);
+                    }
+                }
+                long now = System.currentTimeMillis();
+                if (now >= nextSweep) {
+                    evictIdle(now);
+                    nextSweep = now + SWEEP_INTERVAL_MILLIS;
+                }
+            }
+        } catch (ClosedSelectorException e) {
+            // close() raced the select
+        } finally {
+            shutdown();
+        }
+    }
+
+    // Stops the selector loop; serve() then disconnects every session and returns
+    @Override
+    public void close() {
+        closed = true;
+        selector.wakeup();
+    }
+
+    private void acceptAll() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            if (sessionCount >= maxSessions) {
+                reject(channel);
+                continue;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true); // prompts are small and wait for an answer
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            sessionCount++;
+            connection.session.start();
+            flush(connection);
+        }
+    }
+
+    private void serviceConnection(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isWritable()) {
+                flush(connection);
+            }
+            if (key.isValid() && key.isReadable()) {
+                read(connection, true);
+            }
+            // Lines held back for output go on once the client has caught up; the loop
+            // reads nothing new, so it ends with the held input
+            while (connection.holdingLines && connection.key.isValid()
+                    && connection.output.getPending() < MAX_PENDING_OUTPUT) {
+                read(connection, false);
+            }
+        } catch (IOException e) {
+            disconnect(connection); // the client went away
+        } catch (RuntimeException e) {
+            System.err.println("Session failed: " + e);
+            disconnect(connection);
+        }
+    }
+
+    // Hands the held input, then (if readChannel) what the client sent since, to the session
+    private void read(Connection connection, boolean readChannel) throws IOException {
+        ByteBuffer in = readBuffer.clear();
+        ByteBuffer held = connection.heldInput;
+        if (held != null && held.position() > 0) {
+            in.put(held.flip());
+            held.clear();
+        }
+        connection.holdingLines = false;
+        if (readChannel && !connection.endOfInput && connection.output.getPending() < MAX_PENDING_OUTPUT) {
+            connection.endOfInput = connection.channel.read(in) < 0;
+            connection.lastInput = System.currentTimeMillis();
+        }
+        in.flip();
+
+        // Hand complete lines to the session, parsed where they lie, until its output
+        // passes MAX_PENDING_OUTPUT; the rest waits until the client has read some
+        int lineStart = 0;
+        int i = 0;
+        while (i < in.limit() && connection.session.isRunning()
+                && connection.output.getPending() < MAX_PENDING_OUTPUT) {
+            if (in.get(i) == '\n') {
+                if (i - lineStart > MAX_LINE_LENGTH) {
+                    disconnect(connection); // not the line protocol
+                    return;
+                }
+                connection.session.handle(CommandParser.parse(in, lineStart, i, command));
+                lineStart = i + 1;
+            }
+            i++;
+        }
+        boolean scanned = i == in.limit();
+        // Like BufferedReader, the end of input also ends an unterminated last line
+        if (connection.endOfInput && scanned && lineStart < in.limit() && connection.session.isRunning()
+                && connection.output.getPending() < MAX_PENDING_OUTPUT) {
+            if (in.limit() - lineStart > MAX_LINE_LENGTH) {
+                disconnect(connection);
+                return;
+            }
+            connection.session.handle(CommandParser.parse(in, lineStart, in.limit(), command));
+            lineStart = in.limit();
+        }
+
+        if (!connection.session.isRunning() || connection.endOfInput && lineStart == in.limit()) {
+            connection.session.end(); // the client may only have closed its sending side
+            connection.closing = true;
+        } else if (lineStart < in.limit()) {
+            if (scanned && in.limit() - lineStart > MAX_LINE_LENGTH) {
+                disconnect(connection); // an unfinished line that is already too long
+                return;
+            }
+            connection.hold(in.position(lineStart));
+            connection.holdingLines = !scanned || connection.endOfInput;
+        }
+        flush(connection);
+    }
+
+    // Sends queued output, then picks what to wait for next
+    private void flush(Connection connection) throws IOException {
+        boolean sent = connection.output.send(connection.channel);
+        if (sent && connection.closing) {
+            disconnect(connection);
+            return;
+        }
+        int ops = 0;
+        if (!sent) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        if (!connection.closing && connection.output.getPending() < MAX_PENDING_OUTPUT) {
+            ops |= SelectionKey.OP_READ;
+        }
+        if (connection.key.interestOps() != ops) {
+            connection.key.interestOps(ops);
+        }
+    }
+
+    // Idle sessions get a parting message and one more sweep to take it
+    private void evictIdle(long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (!(key.attachment() instanceof Connection connection) || now - connection.lastInput < idleTimeoutMillis) {
+                continue;
+            }
+            if (connection.closing) {
+                disconnect(connection);
+            } else {
+                connection.output.newline().put("Disconnected after ").put(idleTimeoutMillis / 1000)
+                        .put(" s without input.").newline();
+                connection.closing = true;
+                try {
+                    flush(connection);
+                } catch (IOException e) {
+                    disconnect(connection);
+                }
+            }
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.key.isValid()) {
+            connection.key.cancel();
+            sessionCount--;
+        }
+        connection.output.release();
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    private void shutdown() throws IOException {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection connection) {
+                disconnect(connection);
+            }
+        }
+        serverChannel.close();
+        selector.close();
+    }
+
+    private static void reject(SocketChannel channel) {
+        try (channel) {
+            channel.write(ByteBuffer.wrap(SERVER_FULL)); // fits any socket buffer, so one write does it
+        } catch (IOException e) {
+            // the client is gone already
+        }
+    }
+
+    // One connected player
+    private class Connection {
+        private final SocketChannel channel;
+        private final OutputQueue output = new OutputQueue(pool);
+        private final GameSession session;
+        private SelectionKey key;
+        private ByteBuffer heldInput; // input not handed to the session yet; kept for reuse
+        private boolean holdingLines; // heldInput has complete lines (or ends the input)
+        private boolean endOfInput;
+        private long lastInput = System.currentTimeMillis();
+        private boolean closing; // send what is queued, then disconnect
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            GameEngine engine = new GameEngine(GameRandom.newSeed(), BitBoard::new);
+            engine.setReuseEvents(true); // the session renders each event as it arrives
+            this.session = new GameSession(engine, output, HINT_BUDGET_MILLIS);
+            session.setHintIntervalMillis(HINT_INTERVAL_MILLIS);
+            session.setMaxCheatValue(MAX_CHEAT_VALUE);
+        }
+
+        // Keeps the rest of in for the next read. Usually an unfinished line, so the
+        // buffer starts at MAX_LINE_LENGTH and only grows for lines held back for output
+        void hold(ByteBuffer in) {
+            if (heldInput == null || heldInput.capacity() < in.remaining()) {
+                heldInput = ByteBuffer.allocate(Math.max(MAX_LINE_LENGTH, in.remaining()));
+            }
+            heldInput.put(in);
+        }
+    }
+
+    // Usage: NioGameServer [port] [maxSessions] [idleTimeoutSeconds]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxSessions = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_SESSIONS;
+        long idleTimeoutMillis = args.length > 2 ? Long.parseLong(args[2]) * 1000 : DEFAULT_IDLE_TIMEOUT_MILLIS;
+
+        try (NioGameServer server = new NioGameServer(port, maxSessions, idleTimeoutMillis)) {
+            System.out.println("NIO game server listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+}
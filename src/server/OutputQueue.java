@@ -0,0 +1,143 @@
+package server;
+
+import view.TextSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.Arrays;
+
+/**
+ * A connection's unsent output as a queue of pooled direct buffers. Text is encoded
+ * straight into the tail buffer (ASCII, other characters as '?', numbers digit by digit)
+ * and a reply that outgrows one buffer simply continues in the next, so rendering never
+ * builds Strings or copies. send() hands all queued buffers to the channel in one
+ * gathering write and returns each buffer to the pool once it has gone out.
+ */
+final class OutputQueue implements TextSink {
+    private final BufferPool pool;
+    private ByteBuffer[] buffers = new ByteBuffer[4];
+    private int head; // first buffer not yet sent
+    private int tail; // one past the last queued buffer
+    private ByteBuffer current; // the tail buffer while it is still being written
+    private long pending; // bytes queued but not sent
+    private final byte[] digits = new byte[20];
+
+    OutputQueue(BufferPool pool) {
+        this.pool = pool;
+    }
+
+    boolean isEmpty() {
+        return pending == 0;
+    }
+
+    long getPending() {
+        return pending;
+    }
+
+    @Override
+    public TextSink put(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            putByte(c < 0x80 ? (byte) c : (byte) '?');
+        }
+        return this;
+    }
+
+    @Override
+    public TextSink put(char c) {
+        putByte(c < 0x80 ? (byte) c : (byte) '?');
+        return this;
+    }
+
+    @Override
+    public TextSink put(long value) {
+        if (value < 0) {
+            putByte((byte) '-');
+        }
+        // Digits of the magnitude, least significant first, negated so Long.MIN_VALUE works
+        long rest = value < 0 ? value : -value;
+        int n = 0;
+        do {
+            digits[n++] = (byte) ('0' - rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+        while (n > 0) {
+            putByte(digits[--n]);
+        }
+        return this;
+    }
+
+    // The line protocol uses LF whatever the server platform
+    @Override
+    public TextSink newline() {
+        putByte((byte) '\n');
+        return this;
+    }
+
+    private void putByte(byte b) {
+        if (current == null || !current.hasRemaining()) {
+            seal();
+            current = pool.acquire();
+            enqueue(current);
+        }
+        current.put(b);
+        pending++;
+    }
+
+    // Writes as much as the channel takes; true once everything is sent
+    boolean send(GatheringByteChannel channel) throws IOException {
+        seal();
+        while (head < tail) {
+            long written = channel.write(buffers, head, tail - head);
+            pending -= written;
+            while (head < tail && !buffers[head].hasRemaining()) {
+                pool.release(buffers[head]);
+                buffers[head++] = null;
+            }
+            if (written == 0) {
+                break; // socket send buffer full; wait for OP_WRITE
+            }
+        }
+        if (head == tail) {
+            head = 0;
+            tail = 0;
+            return true;
+        }
+        return false;
+    }
+
+    // Returns every buffer to the pool; for connections that are going away
+    void release() {
+        seal();
+        for (int i = head; i < tail; i++) {
+            pool.release(buffers[i]);
+            buffers[i] = null;
+        }
+        head = 0;
+        tail = 0;
+        pending = 0;
+    }
+
+    // Switches the tail buffer to reading; later output starts a new buffer
+    private void seal() {
+        if (current != null) {
+            current.flip();
+            current = null;
+        }
+    }
+
+    private void enqueue(ByteBuffer buffer) {
+        if (tail == buffers.length) {
+            if (head > 0) {
+                System.arraycopy(buffers, head, buffers, 0, tail - head);
+                Arrays.fill(buffers, tail - head, tail, null);
+                tail -= head;
+                head = 0;
+            } else {
+                buffers = Arrays.copyOf(buffers, buffers.length * 2);
+            }
+        }
+        buffers[tail++] = buffer;
+    }
+}
@@ -0,0 +1,22 @@
+package simulation;
+
+import model.Board;
+import model.GameEngine;
+
+/**
+ * Always plays the sum of the center and the first outer cell not yet in the fill.
+ * Every move succeeds, so matches are decided by gear and the opponents' attack timing.
+ */
+public class GreedyMovePolicy implements MovePolicy {
+    @Override
+    public int chooseSum(GameEngine engine) {
+        Board board = engine.getBoard();
+        int cell = board.findFirstCellNotInFill();
+
+        // Fill is complete (cannot normally happen between turns), any outer cell works
+        if (cell < 0) {
+            cell = board.getIndex(0, 0);
+        }
+        return board.getCenterValue() + board.getCellValue(board.getRow(cell), board.getCol(cell));
+    }
+}
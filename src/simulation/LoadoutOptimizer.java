@@ -0,0 +1,338 @@
+package simulation;
+
+import model.BitBoard;
+import model.EquipmentRegistry;
+import model.GameEngine;
+import model.GameRandom;
+import model.MoveSolver;
+import model.SimulatedClock;
+import model.StatsTracker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongFunction;
+
+/**
+ * Ranks every loadout (one weapon and three rings) by simulated win rate and damage per
+ * turn. Ring order does not change which rings activate or their combined multiplier,
+ * so each multiset of rings is played once: 7 weapons x 84 ring triples = 588 loadouts.
+ *
+ * Loadouts are played in rounds. Each round every loadout still in the race plays the
+ * same number of matches on the ForkJoinPool, one task per loadout, and every loadout
+ * gets the same engine seed in a round (common random numbers), so differences come from
+ * the gear rather than from the boards dealt. After each round a loadout is dropped
+ * once another is clearly better: its confidence interval (z standard errors) lies
+ * entirely above on one measure and it is not clearly worse on the other. Results only
+ * depend on the master seed, not on the number of cores.
+ */
+public class LoadoutOptimizer {
+    private static final int DEFAULT_MATCHES_PER_ROUND = 100;
+    private static final int DEFAULT_MAX_ROUNDS = 20;
+    private static final double DEFAULT_Z = 3.0; // "obviously" worse: hundreds of pairs are compared
+    private static final long DEFAULT_MILLIS_PER_TURN = 1000;
+    private static final int SLOTS = 3;
+
+    // Survivors first, then by win rate, then by damage per turn
+    private static final Comparator<Loadout> RANKING = Comparator
+            .comparing((Loadout l) -> l.isPruned())
+            .thenComparing(Comparator.comparingDouble(Loadout::getWinRate).reversed())
+            .thenComparing(Comparator.comparingDouble(Loadout::getDamagePerTurn).reversed());
+
+    private final ForkJoinPool pool;
+    private final int matchesPerRound;
+    private final int maxRounds;
+    private final double z;
+    private final long millisPerTurn;
+    private final LongFunction<MovePolicy> policyFactory;
+
+    // Policy factory receives a per-task seed so randomized policies stay reproducible
+    public LoadoutOptimizer(ForkJoinPool pool, int matchesPerRound, int maxRounds, double z, long millisPerTurn,
+            LongFunction<MovePolicy> policyFactory) {
+        if (matchesPerRound < 2 || maxRounds < 1) {
+            throw new IllegalArgumentException("Need at least 2 matches per round and 1 round");
+        }
+        if (z <= 0) {
+            throw new IllegalArgumentException("Invalid confidence width: " + z);
+        }
+        this.pool = pool;
+        this.matchesPerRound = matchesPerRound;
+        this.maxRounds = maxRounds;
+        this.z = z;
+        this.millisPerTurn = millisPerTurn;
+        this.policyFactory = policyFactory;
+    }
+
+    public LoadoutOptimizer(LongFunction<MovePolicy> policyFactory) {
+        this(ForkJoinPool.commonPool(), DEFAULT_MATCHES_PER_ROUND, DEFAULT_MAX_ROUNDS, DEFAULT_Z,
+                DEFAULT_MILLIS_PER_TURN, policyFactory);
+    }
+
+    // Every weapon with every ring multiset (ring ids in non-decreasing order)
+    public static List<Loadout> allLoadouts() {
+        List<Loadout> loadouts = new ArrayList<>();
+        for (int weapon = 0; weapon < EquipmentRegistry.WEAPON_COUNT; weapon++) {
+            for (int ring1 = 0; ring1 < EquipmentRegistry.RING_COUNT; ring1++) {
+                for (int ring2 = ring1; ring2 < EquipmentRegistry.RING_COUNT; ring2++) {
+                    for (int ring3 = ring2; ring3 < EquipmentRegistry.RING_COUNT; ring3++) {
+                        loadouts.add(new Loadout(weapon, ring1, ring2, ring3));
+                    }
+                }
+            }
+        }
+        return loadouts;
+    }
+
+    // Races every loadout and returns them ranked, best first
+    public List<Loadout> optimize(long masterSeed) {
+        return optimize(allLoadouts(), masterSeed);
+    }
+
+    // The loadouts are only read for their gear: each call races fresh copies and returns
+    // those, so the same list can be optimized again (or elsewhere) from scratch
+    public List<Loadout> optimize(List<Loadout> loadouts, long masterSeed) {
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        List<Loadout> entrants = new ArrayList<>(loadouts.size());
+        for (Loadout loadout : loadouts) {
+            entrants.add(new Loadout(loadout.weaponId, loadout.ringIds[0], loadout.ringIds[1], loadout.ringIds[2]));
+        }
+        List<Loadout> racing = new ArrayList<>(entrants);
+
+        for (int round = 1; round <= maxRounds && racing.size() > 1; round++) {
+            long engineSeed = master.split().nextLong();
+            long policySeed = master.split().nextLong();
+
+            List<ForkJoinTask<Batch>> tasks = new ArrayList<>(racing.size());
+            for (Loadout loadout : racing) {
+                tasks.add(pool.submit(() -> playBatch(loadout, engineSeed, policySeed)));
+            }
+            // Merged on this thread, in loadout order, so no tally is shared between tasks
+            for (int i = 0; i < racing.size(); i++) {
+                racing.get(i).add(tasks.get(i).join());
+            }
+
+            prune(racing, round);
+        }
+
+        entrants.sort(RANKING);
+        return entrants;
+    }
+
+    private Batch playBatch(Loadout loadout, long engineSeed, long policySeed) {
+        GameEngine engine = new GameEngine(engineSeed, BitBoard::new, new SimulatedClock());
+        engine.setReuseEvents(true); // only StatsTracker and the runner listen, neither keeps events
+        engine.equipPlayerWeapon(loadout.weaponId); // kept across matches
+        engine.equipPlayerRings(loadout.ringIds[0], loadout.ringIds[1], loadout.ringIds[2]);
+        SimulationRunner runner = new SimulationRunner(engine, policyFactory.apply(policySeed), millisPerTurn);
+        StatsTracker stats = engine.getStats();
+
+        Batch batch = new Batch();
+        for (int m = 0; m < matchesPerRound; m++) {
+            long wonBefore = stats.getMatchesWon();
+            long damageBefore = stats.getTotalDamageDone();
+            long turns = runner.playMatch();
+            long damage = stats.getTotalDamageDone() - damageBefore;
+            batch.add(stats.getMatchesWon() > wonBefore, turns, damage);
+        }
+        return batch;
+    }
+
+    // Drops every loadout that some other racing loadout clearly beats
+    private void prune(List<Loadout> racing, int round) {
+        List<Loadout> dropped = new ArrayList<>();
+        for (Loadout loadout : racing) {
+            for (Loadout other : racing) {
+                if (other != loadout && dominates(other, loadout)) {
+                    dropped.add(loadout);
+                    break;
+                }
+            }
+        }
+        for (Loadout loadout : dropped) {
+            loadout.prunedInRound = round;
+        }
+        racing.removeAll(dropped);
+    }
+
+    // Clearly better on one measure and not clearly worse on the other
+    private boolean dominates(Loadout a, Loadout b) {
+        boolean betterDamage = a.damagePerTurnLower(z) > b.damagePerTurnUpper(z);
+        boolean betterWins = a.winRateLower(z) > b.winRateUpper(z);
+        boolean noWorseDamage = a.damagePerTurnUpper(z) >= b.damagePerTurnLower(z);
+        boolean noWorseWins = a.winRateUpper(z) >= b.winRateLower(z);
+        return (betterDamage && noWorseWins) || (betterWins && noWorseDamage);
+    }
+
+    /**
+     * One weapon and three rings, with the matches played so far. Damage per turn is the
+     * mean over matches of damage dealt divided by turns taken.
+     */
+    public static class Loadout {
+        private final int weaponId;
+        private final int[] ringIds;
+        private long matches;
+        private long wins;
+        private long turns;
+        private double damagePerTurnSum;
+        private double damagePerTurnSquares;
+        private int prunedInRound; // 0 while still racing
+
+        public Loadout(int weaponId, int ring1, int ring2, int ring3) {
+            EquipmentRegistry.getWeapon(weaponId); // validate the ids
+            EquipmentRegistry.getRing(ring1);
+            EquipmentRegistry.getRing(ring2);
+            EquipmentRegistry.getRing(ring3);
+            this.weaponId = weaponId;
+            this.ringIds = new int[] { ring1, ring2, ring3 };
+        }
+
+        private void add(Batch batch) {
+            matches += batch.matches;
+            wins += batch.wins;
+            turns += batch.turns;
+            damagePerTurnSum += batch.damagePerTurnSum;
+            damagePerTurnSquares += batch.damagePerTurnSquares;
+        }
+
+        public int getWeaponId() {
+            return weaponId;
+        }
+
+        public int getRingId(int slot) {
+            if (slot < 0 || slot >= SLOTS) {
+                throw new IndexOutOfBoundsException("No ring slot " + slot);
+            }
+            return ringIds[slot];
+        }
+
+        public long getMatches() {
+            return matches;
+        }
+
+        public long getTurns() {
+            return turns;
+        }
+
+        public boolean isPruned() {
+            return prunedInRound > 0;
+        }
+
+        // Round after which the loadout was dropped, or 0 if it was never dropped
+        public int getPrunedInRound() {
+            return prunedInRound;
+        }
+
+        public double getWinRate() {
+            return matches == 0 ? 0.0 : (double) wins / matches;
+        }
+
+        public double getDamagePerTurn() {
+            return matches == 0 ? 0.0 : damagePerTurnSum / matches;
+        }
+
+        // Wilson score interval, which stays sensible at 0 and 100% wins
+        public double winRateLower(double z) {
+            return wilson(z, -1);
+        }
+
+        public double winRateUpper(double z) {
+            return wilson(z, 1);
+        }
+
+        private double wilson(double z, int sign) {
+            if (matches == 0) {
+                return sign < 0 ? 0.0 : 1.0;
+            }
+            double p = getWinRate();
+            double z2 = z * z;
+            double center = p + z2 / (2 * matches);
+            double spread = z * Math.sqrt(p * (1 - p) / matches + z2 / (4.0 * matches * matches));
+            return (center + sign * spread) / (1 + z2 / matches);
+        }
+
+        public double damagePerTurnLower(double z) {
+            return getDamagePerTurn() - z * damagePerTurnError();
+        }
+
+        public double damagePerTurnUpper(double z) {
+            return getDamagePerTurn() + z * damagePerTurnError();
+        }
+
+        // Standard error of the mean damage per turn
+        private double damagePerTurnError() {
+            if (matches < 2) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double mean = getDamagePerTurn();
+            double variance = Math.max(0.0, (damagePerTurnSquares - matches * mean * mean) / (matches - 1));
+            return Math.sqrt(variance / matches);
+        }
+
+        @Override
+        public String toString() {
+            return EquipmentRegistry.weaponName(weaponId) + " + " + EquipmentRegistry.ringName(ringIds[0])
+                    + ", " + EquipmentRegistry.ringName(ringIds[1]) + ", " + EquipmentRegistry.ringName(ringIds[2]);
+        }
+    }
+
+    // Tallies of one task's matches
+    private static class Batch {
+        private long matches;
+        private long wins;
+        private long turns;
+        private double damagePerTurnSum;
+        private double damagePerTurnSquares;
+
+        void add(boolean won, long matchTurns, long damage) {
+            double damagePerTurn = matchTurns == 0 ? 0.0 : (double) damage / matchTurns;
+            matches++;
+            wins += won ? 1 : 0;
+            turns += matchTurns;
+            damagePerTurnSum += damagePerTurn;
+            damagePerTurnSquares += damagePerTurn * damagePerTurn;
+        }
+    }
+
+    // Usage: LoadoutOptimizer [matchesPerRound] [maxRounds] [masterSeed] [greedy|random|solver] [top]
+    public static void main(String[] args) {
+        int matchesPerRound = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MATCHES_PER_ROUND;
+        int maxRounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_ROUNDS;
+        long masterSeed = args.length > 2 ? Long.parseLong(args[2]) : 213L;
+        String policyName = args.length > 3 ? args[3] : "greedy";
+        int top = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+
+        LongFunction<MovePolicy> policyFactory = switch (policyName) {
+            case "greedy" -> seed -> new GreedyMovePolicy();
+            case "random" -> seed -> new RandomMovePolicy(new GameRandom(seed));
+            case "solver" -> seed -> new SolverMovePolicy(new MoveSolver(0, 1, DEFAULT_MILLIS_PER_TURN));
+            default -> throw new IllegalArgumentException("Unknown policy: " + policyName);
+        };
+
+        LoadoutOptimizer optimizer = new LoadoutOptimizer(ForkJoinPool.commonPool(), matchesPerRound, maxRounds,
+                DEFAULT_Z, DEFAULT_MILLIS_PER_TURN, policyFactory);
+        long start = System.nanoTime();
+        List<Loadout> ranked = optimizer.optimize(masterSeed);
+        long elapsed = System.nanoTime() - start;
+
+        long matches = 0;
+        long pruned = 0;
+        for (Loadout loadout : ranked) {
+            matches += loadout.getMatches();
+            pruned += loadout.isPruned() ? 1 : 0;
+        }
+        System.out.printf("%,d loadouts, %,d pruned, %,d matches in %.3f s on %d cores%n",
+                ranked.size(), pruned, matches, elapsed / 1_000_000_000.0, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%4s  %-78s %8s %8s %16s %14s%n", "Rank", "Loadout", "Matches", "Win %",
+                "Damage/turn", "Status");
+        for (int i = 0; i < Math.min(top, ranked.size()); i++) {
+            Loadout l = ranked.get(i);
+            System.out.printf("%4d  %-78s %8d %8.1f %8.2f +/- %4.2f %14s%n", i + 1, l, l.getMatches(),
+                    100 * l.getWinRate(), l.getDamagePerTurn(),
+                    l.damagePerTurnUpper(DEFAULT_Z) - l.getDamagePerTurn(),
+                    l.isPruned() ? "pruned (" + l.getPrunedInRound() + ")" : "kept");
+        }
+    }
+}
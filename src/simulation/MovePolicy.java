@@ -0,0 +1,12 @@
+package simulation;
+
+import model.GameEngine;
+
+/**
+ * Strategy interface for choosing the next sum to play.
+ * Used by the simulation drivers in place of a human typing at the console.
+ */
+public interface MovePolicy {
+    // Returns the sum to pass to GameEngine.processSum for the current turn.
+    int chooseSum(GameEngine engine);
+}
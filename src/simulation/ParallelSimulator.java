@@ -0,0 +1,137 @@
+package simulation;
+
+import journal.EventJournal;
+import journal.JournalObserver;
+import model.BitBoard;
+import model.ConcurrentStatsTracker;
+import model.GameEngine;
+import model.GameRandom;
+import model.MoveSolver;
+import model.SimulatedClock;
+import model.StatsTracker;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongFunction;
+
+/**
+ * Monte Carlo simulator that shards matches across a ForkJoinPool.
+ * Every shard gets its own GameEngine (playing on BitBoards), seeded from a
+ * SplittableRandom derived from the master seed, and all shards record into one shared
+ * ConcurrentStatsTracker. Shard seeds and match counts depend only on the master seed
+ * and shard count, never on the number of cores, and the totals are sums, so the
+ * statistics are the same on a laptop and on a 64-core box.
+ * With an EventJournal, every event and input of every shard is journaled as stream
+ * <shard index>, so JournalVerifier can replay the run.
+ */
+public class ParallelSimulator {
+    private static final int DEFAULT_SHARDS = 256;
+    private static final long DEFAULT_MILLIS_PER_TURN = 1000;
+
+    private final ForkJoinPool pool;
+    private final int shardCount;
+    private final long millisPerTurn;
+    private final LongFunction<MovePolicy> policyFactory;
+    private final EventJournal journal; // null when not journaling
+
+    // Policy factory receives the shard seed so randomized policies stay reproducible.
+    // Each shard runs on its own SimulatedClock advanced by millisPerTurn every turn.
+    public ParallelSimulator(ForkJoinPool pool, int shardCount, long millisPerTurn,
+            LongFunction<MovePolicy> policyFactory) {
+        this(pool, shardCount, millisPerTurn, policyFactory, null);
+    }
+
+    public ParallelSimulator(ForkJoinPool pool, int shardCount, long millisPerTurn,
+            LongFunction<MovePolicy> policyFactory, EventJournal journal) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1");
+        }
+        this.pool = pool;
+        this.shardCount = shardCount;
+        this.millisPerTurn = millisPerTurn;
+        this.policyFactory = policyFactory;
+        this.journal = journal;
+    }
+
+    public ParallelSimulator(LongFunction<MovePolicy> policyFactory) {
+        this(ForkJoinPool.commonPool(), DEFAULT_SHARDS, DEFAULT_MILLIS_PER_TURN, policyFactory);
+    }
+
+    public SimulationResult run(long matches, long masterSeed) {
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        ConcurrentStatsTracker stats = new ConcurrentStatsTracker(); // shared by every shard
+        List<ForkJoinTask<SimulationResult>> tasks = new ArrayList<>(shardCount);
+        long start = System.nanoTime();
+
+        for (int shard = 0; shard < shardCount; shard++) {
+            // Spread the remainder over the first shards
+            long shardMatches = matches / shardCount + (shard < matches % shardCount ? 1 : 0);
+            long engineSeed = master.split().nextLong();
+            long policySeed = master.split().nextLong();
+            int shardIndex = shard;
+            tasks.add(pool.submit(() -> runShard(shardIndex, shardMatches, engineSeed, policySeed, stats)));
+        }
+
+        long totalMatches = 0;
+        long totalTurns = 0;
+        for (ForkJoinTask<SimulationResult> task : tasks) {
+            SimulationResult shardResult = task.join();
+            totalMatches += shardResult.getMatchesPlayed();
+            totalTurns += shardResult.getTurnsPlayed();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        return new SimulationResult(totalMatches, totalTurns, elapsed, stats);
+    }
+
+    private SimulationResult runShard(int shard, long matches, long engineSeed, long policySeed, StatsTracker stats) {
+        GameEngine engine = new GameEngine(engineSeed, BitBoard::new, new SimulatedClock(), stats);
+        engine.setReuseEvents(true); // StatsTracker, the runner and the journal encoder, none keeps events
+        JournalObserver recorder = null;
+        if (journal != null) {
+            recorder = new JournalObserver(journal, shard);
+            engine.registerObserver(recorder);
+            engine.setInputRecorder(recorder);
+        }
+        SimulationRunner runner = new SimulationRunner(engine, policyFactory.apply(policySeed), millisPerTurn);
+        SimulationResult result = runner.run(matches);
+        if (recorder != null) {
+            recorder.flush();
+        }
+        return result;
+    }
+
+    // Usage: ParallelSimulator [matches] [masterSeed] [greedy|random|solver] [journalDirectory]
+    public static void main(String[] args) throws IOException {
+        long matches = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        long masterSeed = args.length > 1 ? Long.parseLong(args[1]) : 213L;
+        String policyName = args.length > 2 ? args[2] : "greedy";
+
+        LongFunction<MovePolicy> policyFactory = switch (policyName) {
+            case "greedy" -> seed -> new GreedyMovePolicy();
+            case "random" -> seed -> new RandomMovePolicy(new GameRandom(seed));
+            case "solver" -> seed -> new SolverMovePolicy(new MoveSolver(0, 1, DEFAULT_MILLIS_PER_TURN));
+            default -> throw new IllegalArgumentException("Unknown policy: " + policyName);
+        };
+
+        EventJournal journal = args.length > 3 ? new EventJournal(Path.of(args[3])) : null;
+        ParallelSimulator simulator = new ParallelSimulator(ForkJoinPool.commonPool(), DEFAULT_SHARDS,
+                DEFAULT_MILLIS_PER_TURN, policyFactory, journal);
+        SimulationResult result = simulator.run(matches, masterSeed);
+        if (journal != null) {
+            journal.close(); // forces what the last commit interval left in memory
+        }
+
+        System.out.println(result);
+        System.out.printf("Cores: %d, won: %d, lost: %d, fills completed: %d%n",
+                ForkJoinPool.commonPool().getParallelism(),
+                result.getStats().getMatchesWon(),
+                result.getStats().getMatchesLost(),
+                result.getStats().getFillsCompleted());
+    }
+}
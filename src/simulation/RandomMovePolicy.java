@@ -0,0 +1,34 @@
+package simulation;
+
+import model.Board;
+import model.GameEngine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Plays the sum of the center and a randomly chosen outer cell.
+ * Models a player who does not care whether the cell is already in the fill.
+ */
+public class RandomMovePolicy implements MovePolicy {
+    private final RandomGenerator random;
+
+    public RandomMovePolicy(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public int chooseSum(GameEngine engine) {
+        Board board = engine.getBoard();
+        int size = board.getBoardSize();
+        int row;
+        int col;
+
+        // Retry until we land on an outer cell (only the center is excluded)
+        do {
+            row = random.nextInt(size);
+            col = random.nextInt(size);
+        } while (!board.isOuterCell(row, col));
+
+        return board.getCenterValue() + board.getCellValue(row, col);
+    }
+}
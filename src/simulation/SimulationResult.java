@@ -0,0 +1,59 @@
+package simulation;
+
+import model.StatsTracker;
+
+/**
+ * Summary of a batch of simulated matches: how many were played, how long it took,
+ * and the statistics gathered by the engine's StatsTracker.
+ */
+public class SimulationResult {
+    private final long matchesPlayed;
+    private final long turnsPlayed;
+    private final long elapsedNanos;
+    private final StatsTracker stats;
+
+    public SimulationResult(long matchesPlayed, long turnsPlayed, long elapsedNanos, StatsTracker stats) {
+        this.matchesPlayed = matchesPlayed;
+        this.turnsPlayed = turnsPlayed;
+        this.elapsedNanos = elapsedNanos;
+        this.stats = stats;
+    }
+
+    public long getMatchesPlayed() {
+        return matchesPlayed;
+    }
+
+    public long getTurnsPlayed() {
+        return turnsPlayed;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public StatsTracker getStats() {
+        return stats;
+    }
+
+    public double getMatchesPerSecond() {
+        return perSecond(matchesPlayed);
+    }
+
+    public double getTurnsPerSecond() {
+        return perSecond(turnsPlayed);
+    }
+
+    private double perSecond(long count) {
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return count * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d matches, %,d turns in %.3f s (%,.0f matches/s, %,.0f turns/s)",
+                matchesPlayed, turnsPlayed, elapsedNanos / 1_000_000_000.0,
+                getMatchesPerSecond(), getTurnsPerSecond());
+    }
+}
@@ -0,0 +1,127 @@
+package simulation;
+
+import model.BitBoard;
+import model.Board;
+import model.GameEngine;
+import model.GameEvent;
+import model.GameObserver;
+import model.GameRandom;
+import model.MoveSolver;
+import model.SimulatedClock;
+
+import java.util.EnumSet;
+
+/**
+ * Headless driver that plays matches back to back without any console I/O.
+ * Moves come from a MovePolicy instead of a Scanner, and the numbers are taken
+ * from the engine's own StatsTracker so they match interactive play.
+ * With a SimulatedClock each turn takes a fixed amount of game time, so the
+ * time-based weapons are exercised without waiting in real time.
+ */
+public final class SimulationRunner implements GameObserver {
+    private final GameEngine engine;
+    private final MovePolicy policy;
+    private final SimulatedClock clock; // null when the engine runs on real time
+    private final long nanosPerTurn;
+    private boolean matchOver;
+
+    // Real-time runner: fills are timed by the engine's clock as turns actually happen
+    public SimulationRunner(GameEngine engine, MovePolicy policy) {
+        this(engine, policy, null, 0);
+    }
+
+    // Simulated-time runner: the engine must have been built with a SimulatedClock
+    public SimulationRunner(GameEngine engine, MovePolicy policy, long millisPerTurn) {
+        this(engine, policy, simulatedClockOf(engine), millisPerTurn * 1_000_000L);
+    }
+
+    private SimulationRunner(GameEngine engine, MovePolicy policy, SimulatedClock clock, long nanosPerTurn) {
+        this.engine = engine;
+        this.policy = policy;
+        this.clock = clock;
+        this.nanosPerTurn = nanosPerTurn;
+        this.matchOver = false;
+
+        // Listen for the end of each match only, everything else is counted by StatsTracker
+        engine.registerObserver(this, EnumSet.of(GameEvent.EventType.MATCH_WON, GameEvent.EventType.MATCH_LOST));
+    }
+
+    private static SimulatedClock simulatedClockOf(GameEngine engine) {
+        if (!(engine.getClock() instanceof SimulatedClock)) {
+            throw new IllegalArgumentException("Simulated turn time needs an engine with a SimulatedClock");
+        }
+        return (SimulatedClock) engine.getClock();
+    }
+
+    @Override
+    public void notify(GameEvent event) {
+        switch (event.getType()) {
+            case MATCH_WON:
+            case MATCH_LOST:
+                matchOver = true;
+                break;
+            default:
+                break; // not subscribed
+        }
+    }
+
+    // Plays the given number of matches, each one starting from startNewMatch().
+    public SimulationResult run(long matches) {
+        long turns = 0;
+        long start = System.nanoTime();
+
+        for (long m = 0; m < matches; m++) {
+            turns += playMatch();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        return new SimulationResult(matches, turns, elapsed, engine.getStats());
+    }
+
+    // Plays a single match to completion and returns the number of turns it took.
+    public long playMatch() {
+        engine.startNewMatch();
+        matchOver = false;
+
+        long turns = 0;
+        while (!matchOver) {
+            if (clock != null) {
+                clock.advance(nanosPerTurn);
+            }
+            engine.processSum(policy.chooseSum(engine));
+            turns++;
+        }
+        return turns;
+    }
+
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    // Usage: SimulationRunner [matches] [greedy|random|solver] [boardSize] [millisPerTurn]
+    public static void main(String[] args) {
+        long matches = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        String policyName = args.length > 1 ? args[1] : "greedy";
+        int boardSize = args.length > 2 ? Integer.parseInt(args[2]) : Board.DEFAULT_SIZE;
+        long millisPerTurn = args.length > 3 ? Long.parseLong(args[3]) : 1000;
+
+        MovePolicy policy = switch (policyName) {
+            case "greedy" -> new GreedyMovePolicy();
+            case "random" -> new RandomMovePolicy(new GameRandom());
+            case "solver" -> new SolverMovePolicy(new MoveSolver(0, 1, millisPerTurn));
+            default -> throw new IllegalArgumentException("Unknown policy: " + policyName);
+        };
+
+        GameEngine engine = new GameEngine(GameRandom.newSeed(), random -> new BitBoard(random, boardSize),
+                new SimulatedClock());
+        engine.setReuseEvents(true);
+        SimulationRunner runner = new SimulationRunner(engine, policy, millisPerTurn);
+        SimulationResult result = runner.run(matches);
+
+        System.out.println(result);
+        System.out.printf("Won: %d, lost: %d, fills completed: %d%n",
+                result.getStats().getMatchesWon(),
+                result.getStats().getMatchesLost(),
+                result.getStats().getFillsCompleted());
+    }
+}
@@ -0,0 +1,22 @@
+package simulation;
+
+import model.GameEngine;
+import model.MoveSolver;
+
+/**
+ * Plays the sum MoveSolver rates best, aiming for the strongest attack the equipped
+ * rings and weapon can make. With no time budget the solver searches a fixed depth, so
+ * seeded simulations stay reproducible.
+ */
+public class SolverMovePolicy implements MovePolicy {
+    private final MoveSolver solver;
+
+    public SolverMovePolicy(MoveSolver solver) {
+        this.solver = solver;
+    }
+
+    @Override
+    public int chooseSum(GameEngine engine) {
+        return solver.solve(engine).getSum();
+    }
+}
@@ -0,0 +1,84 @@
+package view;
+
+/**
+ * One parsed input line (see CommandParser). Parsers overwrite a Command in place, so a
+ * session can read every line into the same instance.
+ */
+public class Command {
+    public enum Kind {
+        EMPTY, // blank line
+        SUM,
+        GEAR,
+        STATS,
+        HINT,
+        NEW,
+        CHEAT,
+        INVALID
+    }
+
+    public enum Cheat {
+        LOW_HEALTH,
+        HIGH_HEALTH,
+        WEAPON,
+        RINGS,
+        MAX,
+        UNKNOWN
+    }
+
+    public static final int MAX_ARGUMENTS = 3;
+
+    Kind kind = Kind.EMPTY;
+    int number; // the sum for SUM
+    boolean yes; // the whole line is "yes" or "y", in any case
+    Cheat cheat;
+    final StringBuilder cheatName = new StringBuilder(); // as typed, lower-cased
+    int argumentCount; // words after the cheat name
+    final int[] arguments = new int[MAX_ARGUMENTS];
+    int numberMask; // bit i set when argument i is a valid int
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public boolean isYes() {
+        return yes;
+    }
+
+    public Cheat getCheat() {
+        return cheat;
+    }
+
+    public CharSequence getCheatName() {
+        return cheatName;
+    }
+
+    public int getArgumentCount() {
+        return argumentCount;
+    }
+
+    // True when the first count arguments are all present and valid ints
+    public boolean hasNumbers(int count) {
+        return argumentCount >= count && (numberMask & ((1 << count) - 1)) == (1 << count) - 1;
+    }
+
+    public int getArgument(int i) {
+        if (i < 0 || i >= Math.min(argumentCount, MAX_ARGUMENTS) || (numberMask & 1 << i) == 0) {
+            throw new IllegalArgumentException("No numeric argument " + i);
+        }
+        return arguments[i];
+    }
+
+    void clear() {
+        kind = Kind.EMPTY;
+        number = 0;
+        yes = false;
+        cheat = null;
+        cheatName.setLength(0);
+        argumentCount = 0;
+        numberMask = 0;
+    }
+}
@@ -0,0 +1,201 @@
+package view;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses the TextUI command grammar:
+ *
+ *   [number] | gear | stats | hint | new | cheat <name> [number ...]
+ *
+ * plus the yes/no and slot-number answers to prompts, which reuse the same result
+ * (isYes, or a SUM). Parsing works on ASCII bytes in place: words are compared byte by
+ * byte and numbers accumulated digit by digit, so a network front end can parse lines
+ * straight out of its read buffer without building Strings. Keywords match exactly,
+ * cheat names and yes/no ignore case, and numbers follow Integer.parseInt (optional
+ * sign, no overflow).
+ */
+public final class CommandParser {
+    private static final byte[] GEAR = ascii("gear");
+    private static final byte[] STATS = ascii("stats");
+    private static final byte[] HINT = ascii("hint");
+    private static final byte[] NEW = ascii("new");
+    private static final byte[] CHEAT = ascii("cheat");
+    private static final byte[] YES = ascii("yes");
+    private static final byte[] Y = ascii("y");
+    private static final byte[] LOW_HEALTH = ascii("lowhealth");
+    private static final byte[] HIGH_HEALTH = ascii("highhealth");
+    private static final byte[] WEAPON = ascii("weapon");
+    private static final byte[] RINGS = ascii("rings");
+    private static final byte[] MAX = ascii("max");
+
+    private CommandParser() {
+    }
+
+    // Console convenience; the line may not contain a line terminator
+    public static Command parse(String line, Command command) {
+        byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        return parse(ByteBuffer.wrap(bytes), 0, bytes.length, command);
+    }
+
+    // Parses bytes [start, end) of the buffer without moving its position
+    public static Command parse(ByteBuffer buffer, int start, int end, Command command) {
+        if (start < 0 || start > end || end > buffer.limit()) {
+            throw new IllegalArgumentException("Invalid line bounds: " + start + ".." + end);
+        }
+        command.clear();
+
+        int firstStart = skipBlanks(buffer, start, end);
+        if (firstStart == end) {
+            return command; // EMPTY
+        }
+        int firstEnd = skipWord(buffer, firstStart, end);
+        int next = skipBlanks(buffer, firstEnd, end);
+
+        if (next == end) {
+            // A single word: keyword, sum or prompt answer
+            command.yes = equalsIgnoreCase(buffer, firstStart, firstEnd, YES)
+                    || equalsIgnoreCase(buffer, firstStart, firstEnd, Y);
+            if (matches(buffer, firstStart, firstEnd, GEAR)) {
+                command.kind = Command.Kind.GEAR;
+            } else if (matches(buffer, firstStart, firstEnd, STATS)) {
+                command.kind = Command.Kind.STATS;
+            } else if (matches(buffer, firstStart, firstEnd, HINT)) {
+                command.kind = Command.Kind.HINT;
+            } else if (matches(buffer, firstStart, firstEnd, NEW)) {
+                command.kind = Command.Kind.NEW;
+            } else if (parseInt(buffer, firstStart, firstEnd, command, -1)) {
+                command.kind = Command.Kind.SUM;
+            } else {
+                command.kind = Command.Kind.INVALID;
+            }
+            return command;
+        }
+
+        if (!matches(buffer, firstStart, firstEnd, CHEAT)) {
+            command.kind = Command.Kind.INVALID;
+            return command;
+        }
+        command.kind = Command.Kind.CHEAT;
+        int nameEnd = skipWord(buffer, next, end);
+        command.cheat = cheatOf(buffer, next, nameEnd);
+        for (int i = next; i < nameEnd; i++) {
+            command.cheatName.append((char) toLower(buffer.get(i)));
+        }
+
+        int wordStart = skipBlanks(buffer, nameEnd, end);
+        while (wordStart < end) {
+            int wordEnd = skipWord(buffer, wordStart, end);
+            int i = command.argumentCount++;
+            if (i < Command.MAX_ARGUMENTS) {
+                parseInt(buffer, wordStart, wordEnd, command, i);
+            }
+            wordStart = skipBlanks(buffer, wordEnd, end);
+        }
+        return command;
+    }
+
+    private static Command.Cheat cheatOf(ByteBuffer buffer, int start, int end) {
+        if (equalsIgnoreCase(buffer, start, end, LOW_HEALTH)) {
+            return Command.Cheat.LOW_HEALTH;
+        } else if (equalsIgnoreCase(buffer, start, end, HIGH_HEALTH)) {
+            return Command.Cheat.HIGH_HEALTH;
+        } else if (equalsIgnoreCase(buffer, start, end, WEAPON)) {
+            return Command.Cheat.WEAPON;
+        } else if (equalsIgnoreCase(buffer, start, end, RINGS)) {
+            return Command.Cheat.RINGS;
+        } else if (equalsIgnoreCase(buffer, start, end, MAX)) {
+            return Command.Cheat.MAX;
+        }
+        return Command.Cheat.UNKNOWN;
+    }
+
+    // Integer.parseInt rules on [start, end). Stores into number (slot -1) or
+    // arguments[slot] and marks it valid; returns false if the word is not an int.
+    private static boolean parseInt(ByteBuffer buffer, int start, int end, Command command, int slot) {
+        int i = start;
+        boolean negative = false;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == end) {
+            return false;
+        }
+        // Accumulate negatively so Integer.MIN_VALUE fits
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || result < limit / 10) {
+                return false;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return false;
+            }
+            result -= digit;
+        }
+        int value = negative ? result : -result;
+        if (slot < 0) {
+            command.number = value;
+        } else {
+            command.arguments[slot] = value;
+            command.numberMask |= 1 << slot;
+        }
+        return true;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int start, int end, byte[] word) {
+        if (end - start != word.length) {
+            return false;
+        }
+        for (int i = 0; i < word.length; i++) {
+            if (buffer.get(start + i) != word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // word must be lower case
+    private static boolean equalsIgnoreCase(ByteBuffer buffer, int start, int end, byte[] word) {
+        if (end - start != word.length) {
+            return false;
+        }
+        for (int i = 0; i < word.length; i++) {
+            if (toLower(buffer.get(start + i)) != word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipBlanks(ByteBuffer buffer, int i, int end) {
+        while (i < end && isBlank(buffer.get(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipWord(ByteBuffer buffer, int i, int end) {
+        while (i < end && !isBlank(buffer.get(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    // What String.trim strips, which covers spaces, tabs and a stray CR
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private static byte toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static byte[] ascii(String word) {
+        return word.getBytes(StandardCharsets.US_ASCII);
+    }
+}
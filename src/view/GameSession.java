@@ -0,0 +1,566 @@
+package view;
+
+import model.*;
+import model.ring.Ring;
+import model.weapon.Weapon;
+
+import java.util.EnumSet;
+
+/**
+ * The text game for one player as a state machine: feed it one parsed input line at a
+ * time and it writes what the console shows to a TextSink, ending with the next prompt.
+ * Questions after a match (equip the prize, which ring to replace, play again) are
+ * states rather than nested reads, so the session never waits for input itself; the
+ * caller decides how lines arrive. TextUI drives it from a blocking reader, the NIO
+ * server from a selector.
+ */
+public final class GameSession implements GameObserver {
+    private static final String RULE = "=".repeat(50);
+
+    // What the next input line answers
+    private enum State {
+        COMMAND,
+        EQUIP_WEAPON,
+        EQUIP_RING,
+        REPLACE_RING,
+        PLAY_AGAIN
+    }
+
+    private final GameEngine gameEngine;
+    private final TextSink out;
+    private final long hintBudgetMillis;
+    private int maxCheatValue = Integer.MAX_VALUE;
+    private long hintIntervalNanos;
+    private long nextHintNanos;
+    private State state = State.COMMAND;
+    private Weapon offeredWeapon;
+    private Ring offeredRing;
+    private boolean prizeWon; // offered once the winning turn is over
+    private boolean gameRunning = true;
+
+    public GameSession(GameEngine gameEngine, TextSink out) {
+        this(gameEngine, out, MoveSolver.DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    // hintBudgetMillis bounds the solver search behind the hint command
+    public GameSession(GameEngine gameEngine, TextSink out, long hintBudgetMillis) {
+        if (hintBudgetMillis < 1) {
+            throw new IllegalArgumentException("Hints need a time budget: " + hintBudgetMillis);
+        }
+        this.gameEngine = gameEngine;
+        this.out = out;
+        this.hintBudgetMillis = hintBudgetMillis;
+
+        // Register as observer to receive the game events it displays
+        gameEngine.registerObserver(this, EnumSet.of(
+                GameEvent.EventType.ATTACK_PERFORMED,
+                GameEvent.EventType.MATCH_WON,
+                GameEvent.EventType.MATCH_LOST,
+                GameEvent.EventType.TURN_FAILED,
+                GameEvent.EventType.OPPONENT_ATTACKED));
+    }
+
+    // False once the player declined another match
+    public boolean isRunning() {
+        return gameRunning;
+    }
+
+    public GameEngine getEngine() {
+        return gameEngine;
+    }
+
+    // Largest maximum "cheat max" accepts; servers keep it small so a remote player
+    // cannot make every board draw and every hint search a huge value range
+    public void setMaxCheatValue(int maxCheatValue) {
+        if (maxCheatValue < 1) {
+            throw new IllegalArgumentException("Invalid cheat max limit: " + maxCheatValue);
+        }
+        this.maxCheatValue = maxCheatValue;
+    }
+
+    // Shortest time between two hints; sooner ones are refused without running the solver.
+    // 0 (the default) allows any number
+    public void setHintIntervalMillis(long hintIntervalMillis) {
+        if (hintIntervalMillis < 0) {
+            throw new IllegalArgumentException("Invalid hint interval: " + hintIntervalMillis);
+        }
+        this.hintIntervalNanos = hintIntervalMillis * 1_000_000;
+        this.nextHintNanos = System.nanoTime();
+    }
+
+    // Welcome text, board and first prompt
+    public void start() {
+        displayWelcome();
+        prompt();
+    }
+
+    // Handles one input line; ends with the next prompt unless the game is over
+    public void handle(Command command) {
+        switch (state) {
+            case COMMAND -> processCommand(command);
+            case EQUIP_WEAPON -> answerWeaponOffer(command);
+            case EQUIP_RING -> answerRingOffer(command);
+            case REPLACE_RING -> answerRingSlot(command);
+            case PLAY_AGAIN -> answerPlayAgain(command);
+        }
+        // The prize is drawn from the engine, which takes no input while it is still
+        // reporting the turn (see GameEngine.setInputRecorder)
+        if (prizeWon) {
+            prizeWon = false;
+            offerNewEquipment();
+        }
+        if (gameRunning) {
+            prompt();
+        }
+    }
+
+    // Closing statistics
+    public void end() {
+        displayFarewell();
+    }
+
+    // observer pattern. this handles events from the game model
+    @Override
+    public void notify(GameEvent event) {
+        switch (event.getType()) {
+            case ATTACK_PERFORMED:
+                GameEvent.AttackData attackData = (GameEvent.AttackData) event.getData();
+                displayAttack(attackData);
+                break;
+
+            case MATCH_WON:
+                out.newline().put("Victory, you have defeated all opponents!").newline();
+                prizeWon = true;
+                break;
+
+            case MATCH_LOST:
+                out.newline().put("DEFEAT, your health is zero.").newline();
+                askToContinue();
+                break;
+
+            case TURN_FAILED:
+                out.put("Invalid sum. No matching cells with this value.").newline();
+                break;
+
+            case OPPONENT_ATTACKED:
+                GameEvent.OpponentAttackData oppData = (GameEvent.OpponentAttackData) event.getData();
+                out.put("Opponent ").put(oppData.attackerIndex + 1)
+                        .put(" attacks for ").put(oppData.damage).put(" damage!").newline();
+                break;
+
+            default:
+                break; // not subscribed; tracked by StatsTracker or shown with the board
+        }
+    }
+
+    // command processing
+
+    private void processCommand(Command command) {
+        switch (command.getKind()) {
+            case EMPTY -> {
+            }
+            case GEAR -> displayGear();
+            case STATS -> displayStats();
+            case HINT -> displayHint();
+            case CHEAT -> processCheat(command);
+            case NEW -> {
+                gameEngine.startNewMatch();
+                out.put("Starting new match!").newline().newline();
+            }
+            case SUM -> gameEngine.processSum(command.getNumber());
+            case INVALID -> out.put("Invalid command. Type a number, 'gear', 'stats', 'hint', 'cheat', or 'new'.")
+                    .newline();
+        }
+    }
+
+    private void processCheat(Command command) {
+        try {
+            switch (command.getCheat()) {
+                case LOW_HEALTH:
+                    gameEngine.setCheatLowHealth(true);
+                    out.put("Cheat activated: Opponents have low health").newline();
+                    break;
+
+                case HIGH_HEALTH:
+                    gameEngine.setCheatHighHealth(true);
+                    out.put("Cheat activated: Opponents have high health").newline();
+                    break;
+
+                case WEAPON:
+                    if (command.getArgumentCount() < 1) {
+                        out.put("Usage: cheat weapon <number>").newline();
+                    } else if (checkNumbers(command, 1)) {
+                        int weaponNum = command.getArgument(0);
+                        gameEngine.equipPlayerWeapon(weaponNum);
+                        out.put(" Equipped weapon ").put(weaponNum).newline();
+                    }
+                    break;
+
+                case RINGS:
+                    if (command.getArgumentCount() < 3) {
+                        out.put("Usage: cheat rings <number> <number> <number>").newline();
+                    } else if (checkNumbers(command, 3)) {
+                        int ring1 = command.getArgument(0);
+                        int ring2 = command.getArgument(1);
+                        int ring3 = command.getArgument(2);
+                        gameEngine.equipPlayerRings(ring1, ring2, ring3);
+                        out.put("Equipped rings: ").put(ring1).put(", ").put(ring2).put(", ").put(ring3).newline();
+                    }
+                    break;
+
+                case MAX:
+                    if (command.getArgumentCount() < 1) {
+                        out.put("Usage: cheat max <number>").newline();
+                    } else if (checkNumbers(command, 1)) {
+                        int max = command.getArgument(0);
+                        if (max > maxCheatValue) {
+                            out.put("Max cell value can be at most ").put(maxCheatValue).newline();
+                        } else {
+                            gameEngine.setMaxValue(max);
+                            out.put("Max cell value set to ").put(max).newline();
+                        }
+                    }
+                    break;
+
+                default:
+                    out.put("Unknown cheat: ").put(command.getCheatName()).newline();
+            }
+        } catch (IllegalArgumentException e) {
+            out.put(e.getMessage()).newline();
+        }
+    }
+
+    private boolean checkNumbers(Command command, int count) {
+        if (!command.hasNumbers(count)) {
+            out.put("Invalid number format").newline();
+            return false;
+        }
+        return true;
+    }
+
+    // display methods
+
+    // Prompts go out after the whole turn, so a turn that ends the match
+    // finishes reporting before the question after the match is asked
+    private void prompt() {
+        switch (state) {
+            case COMMAND -> {
+                displayGameState();
+                out.newline().put("Enter command: ");
+            }
+            case EQUIP_WEAPON -> out.newline().put("Equip this weapon: ");
+            case EQUIP_RING -> out.newline().put("Equip this ring: ");
+            case REPLACE_RING -> out.put("Which ring to replace (1-3, or 0 to cancel): ");
+            case PLAY_AGAIN -> out.newline().put("Play another match (yes/no): ");
+        }
+    }
+
+    private void displayGameState() {
+        Opponent[] opponents = gameEngine.getOpponents();
+        Board board = gameEngine.getBoard();
+        Player player = gameEngine.getPlayer();
+        Fill fill = gameEngine.getCurrentFill();
+
+        out.newline().put(RULE).newline();
+
+        // display opponent health
+        out.put('[').put(opponents[0].getHealth()).put("]\t\t[")
+                .put(opponents[1].getHealth()).put("]\t\t[")
+                .put(opponents[2].getHealth()).put(']').newline();
+
+        // display board (3 x 3 unless configured otherwise)
+        int size = board.getBoardSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = board.getCellValue(row, col);
+
+                // Format: underline if in fill, tab-separate
+                if (board.isInFill(row, col)) {
+                    out.put('_').put(value).put("_\t\t");
+                } else {
+                    out.put(value).put("\t\t");
+                }
+            }
+            out.newline();
+        }
+
+        // display player health and fill strength
+        out.put("\t\t[").put(player.getHealth()).put("]\t\tFill: ").put(fill.getStrength()).newline();
+        out.put(RULE).newline();
+    }
+
+    private void displayAttack(GameEvent.AttackData data) {
+        out.newline().put("Fill complete! Strength is ").put(data.strength).put('.').newline();
+
+        // display ring activations with bonus percentages
+        for (int i = 0; i < data.activeRings.size(); i++) {
+            int bonusPercent = getRingBonusPercent(data.getActiveRingId(i));
+            out.put(data.activeRings.get(i)).put(" adds ").put(bonusPercent).put("% bonus damage.").newline();
+        }
+
+        // display damage to each target
+        // Primary target is first, then weapon targets
+        int primaryTargetIndex = data.targets.isEmpty() ? -1 : data.targets.get(0).targetIndex;
+
+        for (int i = 0; i < data.targets.size(); i++) {
+            GameEvent.TargetDamage target = data.targets.get(i);
+            String position = getPositionName(target.targetIndex);
+
+            // Show weapon targeting for additional targets (not the primary target)
+            if (data.weaponActivated && target.targetIndex != primaryTargetIndex) {
+                out.put(data.weaponName).put(" targets ").put(position).put(" character.").newline();
+            }
+
+            if (target.missed) {
+                out.put("Missed ").put(position).put(" character.").newline();
+            } else {
+                out.put("Hit ").put(position).put(" character for ").put(target.damage).put(" damage.").newline();
+                if (target.killed) {
+                    out.put("Kills ").put(position).put(" character!").newline();
+                }
+            }
+        }
+        out.newline();
+    }
+
+    private int getRingBonusPercent(int ringId) {
+        // Convert multiplier to percentage: (multiplier - 1.0) * 100
+        return (int) Math.round((EquipmentRegistry.ringMultiplier(ringId) - 1.0) * 100);
+    }
+
+    private void displayGear() {
+        Player player = gameEngine.getPlayer();
+        Weapon weapon = player.getWeapon();
+        Ring[] rings = player.getRings();
+
+        out.newline().put(RULE).newline();
+        out.put("Current equipment").newline();
+        out.put(RULE).newline();
+
+        out.put("Weapon: ").put(weapon.getName()).newline();
+        out.put(weapon.getDescription()).newline();
+
+        out.newline().put("Rings:").newline();
+        for (int i = 0; i < rings.length; i++) {
+            out.put("  ").put(i + 1).put(". ").put(rings[i].getName()).newline();
+            out.put(rings[i].getDescription()).newline();
+        }
+        out.put(RULE).newline().newline();
+    }
+
+    private void displayStats() {
+        StatsTracker stats = gameEngine.getStats();
+
+        out.newline().put(RULE).newline();
+        out.put("Statistics").newline();
+        out.put(RULE).newline();
+
+        // Equipment activations, in registry order
+        out.put("Equipment Activations:").newline();
+        boolean any = false;
+        for (int id = 0; id < EquipmentRegistry.WEAPON_COUNT; id++) {
+            any |= displayActivations(EquipmentRegistry.weaponName(id), stats.getWeaponActivationCount(id));
+        }
+        for (int id = 0; id < EquipmentRegistry.RING_COUNT; id++) {
+            any |= displayActivations(EquipmentRegistry.ringName(id), stats.getRingActivationCount(id));
+        }
+        if (!any) {
+            out.put("  (none yet)").newline();
+        }
+
+        // Match statistics
+        out.newline().put("Matches:").newline();
+        out.put("Won:  ").put(stats.getMatchesWon()).newline();
+        out.put("lost: ").put(stats.getMatchesLost()).newline();
+
+        // Damage statistics
+        out.newline().put("Total damage:").newline();
+        putGrouped(out.put("Done:     "), stats.getTotalDamageDone()).newline();
+        putGrouped(out.put("Received: "), stats.getTotalDamageReceived()).newline();
+
+        out.newline().put("Fills Completed: ").put(stats.getFillsCompleted()).newline();
+        out.put(RULE).newline().newline();
+    }
+
+    // "  %-25s %d" for one piece of equipment that has activated
+    private boolean displayActivations(String name, long count) {
+        if (count == 0) {
+            return false;
+        }
+        out.put("  ").put(name);
+        for (int i = name.length(); i < 25; i++) {
+            out.put(' ');
+        }
+        out.put(' ').put(count).newline();
+        return true;
+    }
+
+    // "%,d": thousands separated by commas
+    private static TextSink putGrouped(TextSink sink, long value) {
+        if (value < 0) {
+            sink.put('-');
+            value = -value; // damage totals stay far from Long.MIN_VALUE
+        }
+        if (value < 1000) {
+            return sink.put(value);
+        }
+        putGrouped(sink, value / 1000).put(',');
+        long group = value % 1000;
+        if (group < 100) {
+            sink.put('0');
+        }
+        if (group < 10) {
+            sink.put('0');
+        }
+        return sink.put(group);
+    }
+
+    // User Interaction
+    private void offerNewEquipment() {
+        // randomly choose weapon or ring
+        boolean isWeapon = gameEngine.nextPrizeIsWeapon();
+
+        if (isWeapon) {
+            offeredWeapon = gameEngine.getRandomWeapon();
+            out.newline().put("You received: ").put(offeredWeapon.getName()).newline();
+            out.put(offeredWeapon.getDescription()).newline();
+            state = State.EQUIP_WEAPON;
+        } else {
+            offeredRing = gameEngine.getRandomRing();
+            out.newline().put("You received: ").put(offeredRing.getName()).newline();
+            out.put(offeredRing.getDescription()).newline();
+            state = State.EQUIP_RING;
+        }
+    }
+
+    private void answerWeaponOffer(Command answer) {
+        if (answer.isYes()) {
+            gameEngine.setPlayerWeapon(offeredWeapon.getId());
+            out.put("Weapon equipped!").newline();
+        } else {
+            out.put("Weapon discarded.").newline();
+        }
+        askToContinue();
+    }
+
+    private void answerRingOffer(Command answer) {
+        if (!answer.isYes()) {
+            out.put("Ring discarded.").newline();
+            askToContinue();
+            return;
+        }
+
+        // Check for empty slot
+        Ring[] currentRings = gameEngine.getPlayer().getRings();
+        int emptySlot = findEmptyRingSlot(currentRings);
+
+        if (emptySlot >= 0) {
+            // Equip in empty slot
+            equipRing(currentRings, emptySlot);
+            out.put("Ring equipped in slot ").put(emptySlot + 1).put('!').newline();
+            askToContinue();
+        } else {
+            // need to replace a ring
+            out.newline().put("All ring slots full. Current rings:").newline();
+            for (int i = 0; i < currentRings.length; i++) {
+                out.put("  ").put(i + 1).put(". ").put(currentRings[i].getName()).newline();
+            }
+            state = State.REPLACE_RING;
+        }
+    }
+
+    private void answerRingSlot(Command answer) {
+        if (answer.getKind() != Command.Kind.SUM) {
+            out.put("Invalid input. Ring discarded.").newline();
+        } else if (answer.getNumber() == 0) {
+            out.put("Ring discarded.").newline();
+        } else if (answer.getNumber() >= 1 && answer.getNumber() <= 3) {
+            equipRing(gameEngine.getPlayer().getRings(), answer.getNumber() - 1);
+            out.put("Ring replaced in slot ").put(answer.getNumber()).put('!').newline();
+        } else {
+            out.put("Invalid slot. Ring discarded.").newline();
+        }
+        askToContinue();
+    }
+
+    private void equipRing(Ring[] currentRings, int slot) {
+        Ring[] newRings = currentRings.clone();
+        newRings[slot] = offeredRing;
+        gameEngine.setPlayerRings(newRings[0].getId(), newRings[1].getId(), newRings[2].getId());
+    }
+
+    private int findEmptyRingSlot(Ring[] rings) {
+        for (int i = 0; i < rings.length; i++) {
+            if (rings[i].getId() == EquipmentRegistry.NO_RING) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // The prize has been dealt with either way
+    private void askToContinue() {
+        offeredWeapon = null;
+        offeredRing = null;
+        state = State.PLAY_AGAIN;
+    }
+
+    private void answerPlayAgain(Command answer) {
+        state = State.COMMAND;
+        if (answer.isYes()) {
+            gameEngine.startNewMatch();
+            out.newline().put("Starting new match!").newline().newline();
+        } else {
+            gameRunning = false;
+        }
+    }
+
+    // helper methods
+
+    private String getPositionName(int index) {
+        return switch (index) {
+            case 0 -> "left";
+            case 1 -> "middle";
+            case 2 -> "right";
+            default -> "unknown";
+        };
+    }
+
+    // Tutorial help: the sum the solver rates best for the current gear
+    private void displayHint() {
+        if (hintIntervalNanos > 0) {
+            long now = System.nanoTime();
+            if (now - nextHintNanos < 0) {
+                out.put("Hints are limited to one every ").put(hintIntervalNanos / 1_000_000)
+                        .put(" ms, try again shortly.").newline();
+                return;
+            }
+            nextHintNanos = now + hintIntervalNanos;
+        }
+        // no search memory kept between turns
+        MoveSolver.Solution hint = new MoveSolver(hintBudgetMillis, MoveSolver.DEFAULT_MAX_LOOKAHEAD,
+                MoveSolver.DEFAULT_MILLIS_PER_TURN).solve(gameEngine);
+        out.put("Hint: try ").put(hint.getSum()).put('.').newline();
+    }
+
+    private void displayWelcome() {
+        out.newline().put(RULE).newline();
+        out.put("Welcome to Yadav & Orla's Awesome Sum Game").newline();
+        out.put(RULE).newline();
+        out.put("Commands:").newline();
+        out.put("[number]  - Enter sum to make a move").newline();
+        out.put("gear      - View your equipment").newline();
+        out.put("stats     - View game statistics").newline();
+        out.put("hint      - Suggest the best sum to play").newline();
+        out.put("new       - Start a new match").newline();
+        out.put("cheat ... - Use cheat commands").newline();
+        out.put(RULE).newline().newline();
+    }
+
+    private void displayFarewell() {
+        out.newline().put(RULE).newline();
+        out.put("end game statistics:").newline();
+        out.put(RULE).newline();
+        displayStats();
+    }
+}
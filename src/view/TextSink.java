@@ -0,0 +1,17 @@
+package view;
+
+/**
+ * Where a GameSession writes its text. The console wraps a PrintWriter; the network
+ * front ends encode straight into their socket buffers, so numbers are passed as
+ * numbers rather than formatted into Strings first.
+ */
+public interface TextSink {
+    TextSink put(CharSequence text);
+
+    TextSink put(char c);
+
+    TextSink put(long value);
+
+    // Ends the current line
+    TextSink newline();
+}